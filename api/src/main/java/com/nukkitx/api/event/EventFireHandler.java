@@ -1,5 +1,6 @@
 package com.nukkitx.api.event;
 
+import javax.annotation.Nullable;
 import java.lang.reflect.Method;
 import java.util.List;
 
@@ -15,7 +16,36 @@ public interface EventFireHandler {
 
         Method getMethod();
 
+        /**
+         * Gets the priority this method listens at.
+         *
+         * @return the priority
+         */
+        default EventPriority getPriority() {
+            Listener listener = getMethod().getAnnotation(Listener.class);
+            return listener == null ? EventPriority.NORMAL : listener.priority();
+        }
+
+        /**
+         * Whether this method should be skipped once a {@link Cancellable} event has been cancelled.
+         *
+         * @return true if cancelled events are ignored
+         */
+        default boolean isIgnoringCancelled() {
+            Listener listener = getMethod().getAnnotation(Listener.class);
+            return listener != null && listener.ignoreCancelled();
+        }
+
+        /**
+         * Gets the invocation statistics of this method, if they are recorded.
+         *
+         * @return the timings, or {@code null} if timings are disabled
+         */
+        @Nullable
+        default ListenerTimings getTimings() {
+            return null;
+        }
+
         void run(Event event) throws Exception;
     }
 }
-
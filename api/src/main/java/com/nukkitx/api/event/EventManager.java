@@ -2,6 +2,8 @@ package com.nukkitx.api.event;
 
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class manages event listeners and fires events.
@@ -17,6 +19,21 @@ public interface EventManager {
      */
     void registerListeners(Object plugin, Object listener);
 
+    /**
+     * Registers multiple {@link Object}s with event listeners at once.
+     *
+     * @param plugin    the plugin associated
+     * @param listeners the listener objects
+     */
+    void registerAll(Object plugin, Collection<?> listeners);
+
+    /**
+     * Begins a batch of listener registrations which are only applied once the batch is committed.
+     *
+     * @return a new {@link ListenerBatch}
+     */
+    ListenerBatch beginBatch();
+
     /**
      * Fires an event.
      *
@@ -24,6 +41,16 @@ public interface EventManager {
      */
     void fire(Event event);
 
+    /**
+     * Fires an event on the event manager's executor instead of the calling thread. Listeners are still called one
+     * after another in priority order.
+     *
+     * @param event the event to fire
+     * @param <T>   the event type
+     * @return a {@link CompletableFuture} completed with the event once all listeners have been called
+     */
+    <T extends Event> CompletableFuture<T> fireAsync(T event);
+
     /**
      * Unregisters an object's event listeners.
      *
@@ -39,4 +66,31 @@ public interface EventManager {
     void deregisterAllListeners(Object plugin);
 
     void deregisterListeners(Collection<Object> listeners);
+
+    /**
+     * Gets the listener methods which are called when an event of the given class is fired.
+     *
+     * @param eventClass the event class
+     * @return the listener methods in the order they are called
+     */
+    List<EventFireHandler.ListenerMethod> getEventListenerMethods(Class<? extends Event> eventClass);
+
+    /**
+     * Checks whether any listener would be called if an event of the given class was fired, so callers can skip
+     * creating events nobody listens to.
+     *
+     * @param eventClass the event class
+     * @return true if the event has listeners
+     */
+    boolean hasListeners(Class<? extends Event> eventClass);
+
+    /**
+     * Gets a token for checking whether an event class has listeners, which is cheaper to check repeatedly than
+     * {@link #hasListeners(Class)}.
+     *
+     * @param eventClass the event class
+     * @param <E>        the event type
+     * @return an {@link EventType} for the event class
+     */
+    <E extends Event> EventType<E> getEventType(Class<E> eventClass);
 }
\ No newline at end of file
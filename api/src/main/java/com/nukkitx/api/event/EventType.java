@@ -0,0 +1,31 @@
+package com.nukkitx.api.event;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A reusable reference to an event class, used to check whether anyone listens to it before creating the event.
+ * <p>
+ * Tokens are meant to be obtained once from {@link EventManager#getEventType(Class)} and kept, for example in a static
+ * field. Checking a token is cheaper than {@link EventManager#hasListeners(Class)} as it only looks the handlers up
+ * again after listeners have changed.
+ *
+ * @param <E> the event
+ */
+public interface EventType<E extends Event> {
+
+    /**
+     * Gets the event class this token is for.
+     *
+     * @return the event class
+     */
+    @Nonnull
+    Class<E> getEventClass();
+
+    /**
+     * Checks whether any listener would be called if an event of this exact class was fired, including listeners of
+     * its supertypes.
+     *
+     * @return true if the event has listeners
+     */
+    boolean isListened();
+}
@@ -0,0 +1,35 @@
+package com.nukkitx.api.event;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * A group of listener registrations which are applied together.
+ * <p>
+ * Nothing is registered until the batch is committed, after which the event handlers are rebuilt once for every
+ * listener in the batch. A batch is not thread-safe.
+ */
+@ParametersAreNonnullByDefault
+public interface ListenerBatch extends AutoCloseable {
+
+    /**
+     * Adds an {@link Object} with event listeners to this batch.
+     *
+     * @param plugin   the plugin associated
+     * @param listener the listener object
+     * @return this batch
+     */
+    ListenerBatch registerListeners(Object plugin, Object listener);
+
+    /**
+     * Registers all listeners in this batch. Committing an already committed batch does nothing.
+     */
+    void commit();
+
+    /**
+     * Commits this batch.
+     */
+    @Override
+    default void close() {
+        commit();
+    }
+}
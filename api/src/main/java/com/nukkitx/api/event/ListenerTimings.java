@@ -0,0 +1,46 @@
+package com.nukkitx.api.event;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invocation statistics of a single listener method.
+ */
+public interface ListenerTimings {
+
+    /**
+     * Gets how many times the listener method has been called.
+     *
+     * @return the invocation count
+     */
+    long getInvocations();
+
+    /**
+     * Gets the time spent in the listener method over all invocations.
+     *
+     * @param unit the unit to return
+     * @return the total time
+     */
+    long getTotalTime(TimeUnit unit);
+
+    /**
+     * Gets the longest single invocation of the listener method.
+     *
+     * @param unit the unit to return
+     * @return the maximum time
+     */
+    long getMaxTime(TimeUnit unit);
+
+    /**
+     * Gets an approximation of the given percentile of invocation times. The returned value is an upper bound.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @param unit       the unit to return
+     * @return the percentile time
+     */
+    long getPercentileTime(double percentile, TimeUnit unit);
+
+    /**
+     * Clears all recorded statistics.
+     */
+    void reset();
+}
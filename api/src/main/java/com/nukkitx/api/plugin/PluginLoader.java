@@ -16,4 +16,23 @@ public interface PluginLoader {
 
     @Nonnull
     PathMatcher getPathMatcher();
+
+    /**
+     * Called once after the descriptions of all plugins being loaded have been read, for example to save anything
+     * cached while reading them.
+     *
+     * @throws Exception if the loader could not finish
+     */
+    default void descriptionsLoaded() throws Exception {
+    }
+
+    /**
+     * Releases the resources of a plugin created by this loader, such as its class loader. The plugin must not be
+     * used afterwards.
+     *
+     * @param plugin the plugin to unload
+     * @throws Exception if the plugin's resources could not be released
+     */
+    default void unloadPlugin(PluginContainer plugin) throws Exception {
+    }
 }
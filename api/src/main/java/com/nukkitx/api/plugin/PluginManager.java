@@ -32,4 +32,14 @@ public interface PluginManager {
      * @return true if the plugin is enabled, otherwise false
      */
     boolean isLoaded(String id);
+
+    /**
+     * Unloads a plugin. Its listeners and services are removed and its classes can be collected once nothing else
+     * references them.
+     *
+     * @param id the plugin to unload
+     * @return true if the plugin was unloaded, false if it was not loaded
+     * @throws IllegalStateException if another loaded plugin depends on it
+     */
+    boolean unloadPlugin(String id);
 }
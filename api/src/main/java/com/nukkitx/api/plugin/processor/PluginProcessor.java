@@ -0,0 +1,103 @@
+package com.nukkitx.api.plugin.processor;
+
+import com.nukkitx.api.plugin.Dependency;
+import com.nukkitx.api.plugin.Plugin;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Writes the {@link Plugin} annotation of the plugin being compiled to {@value #DESCRIPTOR}, so the plugin loader can
+ * read it directly instead of scanning the jar's classes.
+ * <p>
+ * The descriptor is a properties file with the keys {@code class}, {@code id}, {@code name}, {@code version},
+ * {@code description}, {@code url}, {@code author.<n>} and {@code dependency.<n>.id}, {@code dependency.<n>.version}
+ * and {@code dependency.<n>.optional}.
+ */
+@SupportedAnnotationTypes("com.nukkitx.api.plugin.Plugin")
+public class PluginProcessor extends AbstractProcessor {
+    public static final String DESCRIPTOR = "META-INF/nukkitx-plugin.properties";
+
+    private String pluginClass;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(Plugin.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Only classes can be plugins", element);
+                continue;
+            }
+
+            TypeElement type = (TypeElement) element;
+            String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+            if (pluginClass != null) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Multiple plugin classes found: " + pluginClass + " and " + className, element);
+                continue;
+            }
+            pluginClass = className;
+
+            try {
+                write(type, className, type.getAnnotation(Plugin.class));
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Unable to write " + DESCRIPTOR + ": " + e.getMessage(), element);
+            }
+        }
+        return false;
+    }
+
+    private void write(TypeElement type, String className, Plugin plugin) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("class", className);
+        properties.setProperty("id", plugin.id());
+        properties.setProperty("name", plugin.name());
+        properties.setProperty("version", plugin.version());
+        properties.setProperty("description", plugin.description());
+        properties.setProperty("url", plugin.url());
+
+        String[] authors = plugin.authors();
+        for (int i = 0; i < authors.length; i++) {
+            properties.setProperty("author." + i, authors[i]);
+        }
+
+        Dependency[] dependencies = plugin.dependencies();
+        for (int i = 0; i < dependencies.length; i++) {
+            properties.setProperty("dependency." + i + ".id", dependencies[i].id());
+            properties.setProperty("dependency." + i + ".version", dependencies[i].version());
+            properties.setProperty("dependency." + i + ".optional", Boolean.toString(dependencies[i].optional()));
+        }
+
+        StringWriter content = new StringWriter();
+        properties.store(content, null);
+
+        FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", DESCRIPTOR, type);
+        try (Writer writer = file.openWriter()) {
+            // Leave out the timestamp comment so builds are reproducible
+            for (String line : content.toString().split("\\R")) {
+                if (!line.startsWith("#")) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.nukkitx.api.service;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Optional;
+
+/**
+ * A resolved reference to a service which always points to its current highest priority provider.
+ * <p>
+ * Handles are meant to be obtained once and kept, as looking up the provider through a handle is cheaper than
+ * {@link ServiceManager#getProvider(Class)}.
+ *
+ * @param <T> the service
+ */
+public interface ServiceHandle<T> {
+
+    /**
+     * Gets the service class this handle is for.
+     *
+     * @return the service class
+     */
+    @Nonnull
+    Class<T> getService();
+
+    /**
+     * Gets the highest priority provider of the service.
+     *
+     * @return the {@link ServiceProvider}, or {@code null} if none is registered
+     */
+    @Nullable
+    ServiceProvider<T> getProvider();
+
+    /**
+     * Gets the highest priority provider of the service.
+     *
+     * @return the {@link ServiceProvider}, or {@link Optional#empty()} if none is registered
+     */
+    @Nonnull
+    default Optional<ServiceProvider<T>> getOptionalProvider() {
+        return Optional.ofNullable(getProvider());
+    }
+}
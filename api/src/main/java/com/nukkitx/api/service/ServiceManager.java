@@ -5,6 +5,8 @@ import javax.annotation.ParametersAreNonnullByDefault;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @ParametersAreNonnullByDefault
 public interface ServiceManager {
@@ -22,7 +24,20 @@ public interface ServiceManager {
     <T> boolean register(Class<T> service, T provider, Object plugin, ServicePriority priority);
 
     /**
-     * Cancel service's provider(s) offered by this plugin.
+     * Register a service's provider which is only created when it is first used. The supplier is called at most once,
+     * the first time {@link ServiceProvider#getProvider()} is called.
+     *
+     * @param <T>      the service
+     * @param service  the service class
+     * @param provider supplies the service provider
+     * @param plugin   the plugin
+     * @param priority the priority
+     * @return {@code true}, or {@code false} only if {@code provider} already registered
+     */
+    <T> boolean registerLazy(Class<T> service, Supplier<? extends T> provider, Object plugin, ServicePriority priority);
+
+    /**
+     * Cancel service's provider(s) offered by this plugin and remove the watchers it added.
      *
      * @param plugin the plugin
      * @return an unmodifiable {@link List}
@@ -53,6 +68,55 @@ public interface ServiceManager {
     @Nonnull
     <T> Optional<ServiceProvider<T>> getProvider(Class<T> service);
 
+    /**
+     * Returns a handle to the service's highest priority provider. The handle stays valid and follows providers
+     * being registered and cancelled.
+     *
+     * @param <T>     the service
+     * @param service the target service class
+     * @return a {@link ServiceHandle} for the service
+     */
+    @Nonnull
+    <T> ServiceHandle<T> getHandle(Class<T> service);
+
+    /**
+     * Watches a service for changes to its highest priority provider. The watcher is called whenever a provider is
+     * registered or cancelled and the highest priority provider changes as a result.
+     * <p>
+     * Watchers are called after the change has been made, without holding any lock, and in the order the changes
+     * were made. Usually this happens before the registering or cancelling method returns, but if another thread is
+     * already notifying watchers, that thread delivers the change instead.
+     * <p>
+     * The watcher is kept until it is removed through {@link #unwatch(Class, Consumer)}. Plugins should use
+     * {@link #watch(Object, Class, Consumer)} instead, so their watchers don't outlive them.
+     *
+     * @param <T>     the service
+     * @param service the service class
+     * @param watcher called with the new highest priority provider, or {@code null} if none is left
+     */
+    <T> void watch(Class<T> service, Consumer<? super ServiceProvider<T>> watcher);
+
+    /**
+     * Watches a service on behalf of a plugin, the same way as {@link #watch(Class, Consumer)}. The watcher is also
+     * removed when the plugin is cancelled through {@link #cancel(Object)}.
+     *
+     * @param <T>     the service
+     * @param plugin  the plugin adding the watcher
+     * @param service the service class
+     * @param watcher called with the new highest priority provider, or {@code null} if none is left
+     */
+    <T> void watch(Object plugin, Class<T> service, Consumer<? super ServiceProvider<T>> watcher);
+
+    /**
+     * Stops watching a service.
+     *
+     * @param <T>     the service
+     * @param service the service class
+     * @param watcher the watcher passed to {@link #watch(Class, Consumer)} or {@link #watch(Object, Class, Consumer)}
+     * @return {@code true} if the watcher was removed
+     */
+    <T> boolean unwatch(Class<T> service, Consumer<? super ServiceProvider<T>> watcher);
+
     /**
      * Gets all registered services.
      *
@@ -0,0 +1,29 @@
+package com.nukkitx.api.service.event;
+
+import com.nukkitx.api.service.ServiceProvider;
+
+import javax.annotation.Nullable;
+
+/**
+ * Fired when the highest priority provider of a service is cancelled.
+ *
+ * @param <T> the service
+ */
+public class ServiceCancelEvent<T> extends ServiceEvent<T> {
+    private final ServiceProvider<T> replacement;
+
+    public ServiceCancelEvent(ServiceProvider<T> provider, @Nullable ServiceProvider<T> replacement) {
+        super(provider);
+        this.replacement = replacement;
+    }
+
+    /**
+     * Gets the provider which took over from the cancelled one.
+     *
+     * @return the new highest priority {@link ServiceProvider}, or {@code null} if none is left
+     */
+    @Nullable
+    public ServiceProvider<T> getReplacement() {
+        return replacement;
+    }
+}
@@ -0,0 +1,40 @@
+package com.nukkitx.api.service.event;
+
+import com.nukkitx.api.event.Event;
+import com.nukkitx.api.service.ServiceProvider;
+
+import javax.annotation.Nonnull;
+import java.util.Objects;
+
+/**
+ * Base class for events fired when the highest priority provider of a service changes.
+ *
+ * @param <T> the service
+ */
+public abstract class ServiceEvent<T> implements Event {
+    private final ServiceProvider<T> provider;
+
+    protected ServiceEvent(ServiceProvider<T> provider) {
+        this.provider = Objects.requireNonNull(provider, "provider");
+    }
+
+    /**
+     * Gets the service class.
+     *
+     * @return the service class
+     */
+    @Nonnull
+    public Class<T> getService() {
+        return provider.getService();
+    }
+
+    /**
+     * Gets the provider this event is about.
+     *
+     * @return the {@link ServiceProvider}
+     */
+    @Nonnull
+    public ServiceProvider<T> getProvider() {
+        return provider;
+    }
+}
@@ -0,0 +1,29 @@
+package com.nukkitx.api.service.event;
+
+import com.nukkitx.api.service.ServiceProvider;
+
+import javax.annotation.Nullable;
+
+/**
+ * Fired when a newly registered provider becomes the highest priority provider of its service.
+ *
+ * @param <T> the service
+ */
+public class ServiceRegisterEvent<T> extends ServiceEvent<T> {
+    private final ServiceProvider<T> previous;
+
+    public ServiceRegisterEvent(ServiceProvider<T> provider, @Nullable ServiceProvider<T> previous) {
+        super(provider);
+        this.previous = previous;
+    }
+
+    /**
+     * Gets the provider which was the highest priority provider before this one was registered.
+     *
+     * @return the previous {@link ServiceProvider}, or {@code null} if there was none
+     */
+    @Nullable
+    public ServiceProvider<T> getPrevious() {
+        return previous;
+    }
+}
@@ -0,0 +1,146 @@
+package com.nukkitx.benchmarks;
+
+import com.nukkitx.event.SimpleEventManager;
+import com.nukkitx.plugin.SimplePluginManager;
+import com.nukkitx.plugin.loader.JavaPluginLoader;
+import com.nukkitx.plugin.util.CdsArchive;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares the time to start a JVM and load a directory of plugins with and without a {@link CdsArchive}. Starts with
+ * the archive include running {@link CdsArchive#main(String[])} in its own JVM to get the options, like a launcher.
+ * <p>
+ * Each start is a fresh JVM, so this can't be a JMH benchmark. Run it with
+ * {@code mvn -P cds-startup verify -Dcds.java=<java 13+>} or with
+ * {@code java -cp benchmarks.jar com.nukkitx.benchmarks.CdsStartupComparison [plugins] [runs]}. The class path has to
+ * be made of jars for classes to be archived.
+ */
+public class CdsStartupComparison {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("load")) {
+            load(Paths.get(args[1]));
+            return;
+        }
+
+        if (!CdsArchive.isSupported()) {
+            System.out.println("Dynamic CDS archives need Java 13 or newer, skipping comparison");
+            return;
+        }
+
+        int plugins = args.length > 0 ? Integer.parseInt(args[0]) : 80;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        Path directory = Files.createTempDirectory("cds-startup");
+        Path pluginDirectory = Files.createDirectory(directory.resolve("plugins"));
+        try {
+            for (int i = 0; i < plugins; i++) {
+                SyntheticPlugins.writePlugin(pluginDirectory.resolve("plugin" + i + ".jar"), "plugin" + i, 200, true);
+            }
+
+            Path archive = directory.resolve("server.jsa");
+            System.out.println("Training run: " + startWithArchive(archive, pluginDirectory) + "ms");
+
+            long without = 0;
+            long with = 0;
+            for (int i = 0; i < runs; i++) {
+                without += start(Collections.emptyList(), pluginDirectory);
+                with += startWithArchive(archive, pluginDirectory);
+            }
+            System.out.println("Without archive: " + without / runs + "ms");
+            System.out.println("With archive, including the options helper: " + with / runs + "ms");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static void load(Path pluginDirectory) throws IOException {
+        SimplePluginManager manager = new SimplePluginManager(new SimpleEventManager());
+        manager.registerLoader(JavaPluginLoader.class, JavaPluginLoader.builder().build());
+        manager.loadPlugins(pluginDirectory);
+    }
+
+    /**
+     * Gets the options from the archive helper and starts with them, timing both.
+     */
+    private static long startWithArchive(Path archive, Path pluginDirectory) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(CdsArchive.class.getName());
+        command.add(archive.toString());
+        Collections.addAll(command, System.getProperty("java.class.path").split(File.pathSeparator));
+        command.add(pluginDirectory.toString());
+
+        long start = System.nanoTime();
+        Process helper = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        String output;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(helper.getInputStream(),
+                StandardCharsets.UTF_8))) {
+            output = reader.readLine();
+        }
+        if (helper.waitFor() != 0) {
+            throw new IllegalStateException("Archive helper exited with " + helper.exitValue());
+        }
+
+        List<String> options = output == null || output.trim().isEmpty() ? Collections.emptyList() :
+                Arrays.asList(output.trim().split(" "));
+        run(options, pluginDirectory);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static long start(List<String> options, Path pluginDirectory) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        run(options, pluginDirectory);
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static void run(List<String> options, Path pluginDirectory) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.addAll(options);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(CdsStartupComparison.class.getName());
+        command.add("load");
+        command.add(pluginDirectory.toString());
+
+        Process process = new ProcessBuilder(command)
+                .inheritIO()
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Plugin load exited with " + process.exitValue());
+        }
+    }
+
+    private static String java() {
+        return Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static void delete(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(path)) {
+                for (Path child : stream) {
+                    delete(child);
+                }
+            }
+        }
+        Files.deleteIfExists(path);
+    }
+}
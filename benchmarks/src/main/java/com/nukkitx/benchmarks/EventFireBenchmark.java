@@ -0,0 +1,131 @@
+package com.nukkitx.benchmarks;
+
+import com.nukkitx.api.event.Cancellable;
+import com.nukkitx.api.event.Event;
+import com.nukkitx.api.event.EventType;
+import com.nukkitx.api.event.Listener;
+import com.nukkitx.event.SimpleEventManager;
+import com.nukkitx.event.firehandler.ASMEventFireHandler;
+import com.nukkitx.event.firehandler.EventFireHandlerFactory;
+import com.nukkitx.event.firehandler.MethodHandleEventFireHandler;
+import com.nukkitx.event.firehandler.ReflectionEventFireHandler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventFireBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int listeners;
+
+    @Param({"ASM", "METHOD_HANDLE", "REFLECTION"})
+    private Strategy strategy;
+
+    private SimpleEventManager eventManager;
+    private EventType<UnlistenedEvent> unlistenedType;
+
+    @Setup
+    public void setup() {
+        eventManager = SimpleEventManager.builder()
+                .handlerFactory(strategy.factory)
+                .build();
+        for (int i = 0; i < listeners; i++) {
+            eventManager.registerListeners(this, new TestListener());
+        }
+        unlistenedType = eventManager.getEventType(UnlistenedEvent.class);
+    }
+
+    @Benchmark
+    public TestEvent fire() {
+        TestEvent event = new TestEvent();
+        eventManager.fire(event);
+        return event;
+    }
+
+    @Benchmark
+    public TestCancellableEvent fireCancellable() {
+        TestCancellableEvent event = new TestCancellableEvent();
+        eventManager.fire(event);
+        return event;
+    }
+
+    @Benchmark
+    public UnlistenedEvent fireUnlistened() {
+        UnlistenedEvent event = new UnlistenedEvent();
+        eventManager.fire(event);
+        return event;
+    }
+
+    @Benchmark
+    public UnlistenedEvent fireUnlistenedChecked() {
+        if (!unlistenedType.isListened()) {
+            return null;
+        }
+        UnlistenedEvent event = new UnlistenedEvent();
+        eventManager.fire(event);
+        return event;
+    }
+
+    public enum Strategy {
+        ASM(ASMEventFireHandler::new),
+        METHOD_HANDLE(MethodHandleEventFireHandler::new),
+        REFLECTION(ReflectionEventFireHandler::new);
+
+        private final EventFireHandlerFactory factory;
+
+        Strategy(EventFireHandlerFactory factory) {
+            this.factory = factory;
+        }
+    }
+
+    public static class TestEvent implements Event {
+        private int calls;
+    }
+
+    public static class UnlistenedEvent implements Event {
+        private final long timestamp = System.nanoTime();
+    }
+
+    public static class TestCancellableEvent implements Cancellable {
+        private boolean cancelled;
+        private int calls;
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void setCancelled(boolean cancelled) {
+            this.cancelled = cancelled;
+        }
+    }
+
+    public static class TestListener {
+
+        @Listener
+        public void onEvent(TestEvent event) {
+            event.calls++;
+        }
+
+        @Listener
+        public void onCancellableEvent(TestCancellableEvent event) {
+            // Cancel half way through so ignoreCancelled listeners get skipped
+            if (++event.calls == 5) {
+                event.setCancelled(true);
+            }
+        }
+
+        @Listener(ignoreCancelled = true)
+        public void onCancellableEventIgnoreCancelled(TestCancellableEvent event) {
+            Blackhole.consumeCPU(1);
+        }
+    }
+}
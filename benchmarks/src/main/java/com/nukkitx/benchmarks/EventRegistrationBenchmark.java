@@ -0,0 +1,88 @@
+package com.nukkitx.benchmarks;
+
+import com.nukkitx.api.event.EventPriority;
+import com.nukkitx.api.event.ListenerBatch;
+import com.nukkitx.api.event.Listener;
+import com.nukkitx.event.SimpleEventManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EventRegistrationBenchmark {
+
+    @Param({"1000", "5000"})
+    private int listeners;
+
+    private List<Object> listenerObjects;
+    private SimpleEventManager eventManager;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        eventManager = new SimpleEventManager();
+        listenerObjects = new ArrayList<>(listeners);
+        for (int i = 0; i < listeners; i++) {
+            // Spread listeners over several classes and event types
+            switch (i % 3) {
+                case 0:
+                    listenerObjects.add(new FirstListener());
+                    break;
+                case 1:
+                    listenerObjects.add(new SecondListener());
+                    break;
+                default:
+                    listenerObjects.add(new ThirdListener());
+            }
+        }
+    }
+
+    @Benchmark
+    public SimpleEventManager registerIndividually() {
+        for (Object listener : listenerObjects) {
+            eventManager.registerListeners(this, listener);
+        }
+        return eventManager;
+    }
+
+    @Benchmark
+    public SimpleEventManager registerBatch() {
+        try (ListenerBatch batch = eventManager.beginBatch()) {
+            for (Object listener : listenerObjects) {
+                batch.registerListeners(this, listener);
+            }
+        }
+        return eventManager;
+    }
+
+    public static class FirstListener {
+
+        @Listener
+        public void onFirst(EventFireBenchmark.TestEvent event) {
+        }
+
+        @Listener(priority = EventPriority.HIGH)
+        public void onSecond(EventFireBenchmark.TestCancellableEvent event) {
+        }
+    }
+
+    public static class SecondListener {
+
+        @Listener(priority = EventPriority.LOW)
+        public void onFirst(EventFireBenchmark.TestEvent event) {
+        }
+    }
+
+    public static class ThirdListener {
+
+        @Listener(priority = EventPriority.MONITOR)
+        public void onSecond(EventFireBenchmark.TestCancellableEvent event) {
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.nukkitx.benchmarks;
+
+import com.nukkitx.plugin.util.DirectedAcyclicGraph;
+import com.nukkitx.plugin.util.GraphException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GraphSortBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int nodes;
+
+    private DirectedAcyclicGraph<Integer> graph;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        Random random = new Random(nodes);
+        graph = new DirectedAcyclicGraph<>();
+        for (int i = 0; i < nodes; i++) {
+            graph.add(i);
+            // Each node depends on up to three earlier nodes
+            for (int j = 0; j < 3 && i > 0; j++) {
+                graph.addEdges(i, random.nextInt(i));
+            }
+        }
+    }
+
+    @Benchmark
+    public Collection<Integer> sort() throws GraphException {
+        return graph.sort();
+    }
+}
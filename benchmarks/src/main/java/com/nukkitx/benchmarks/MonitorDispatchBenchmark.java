@@ -0,0 +1,62 @@
+package com.nukkitx.benchmarks;
+
+import com.nukkitx.api.event.EventPriority;
+import com.nukkitx.api.event.Listener;
+import com.nukkitx.event.MonitorPolicy;
+import com.nukkitx.event.SimpleEventManager;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MonitorDispatchBenchmark {
+
+    @Param({"20", "50"})
+    private int monitors;
+
+    @Param({"SYNCHRONOUS", "PARALLEL", "PARALLEL_FIRE_AND_FORGET"})
+    private MonitorPolicy policy;
+
+    private SimpleEventManager eventManager;
+
+    @Setup
+    public void setup() {
+        eventManager = SimpleEventManager.builder()
+                .monitorPolicy(policy)
+                .build();
+        eventManager.registerListeners(this, new NormalListener());
+        for (int i = 0; i < monitors; i++) {
+            eventManager.registerListeners(this, new MonitorListener());
+        }
+    }
+
+    @Benchmark
+    public EventFireBenchmark.TestEvent fire() {
+        EventFireBenchmark.TestEvent event = new EventFireBenchmark.TestEvent();
+        eventManager.fire(event);
+        return event;
+    }
+
+    public static class NormalListener {
+
+        @Listener
+        public void onEvent(EventFireBenchmark.TestEvent event) {
+            Blackhole.consumeCPU(100);
+        }
+    }
+
+    public static class MonitorListener {
+
+        @Listener(priority = EventPriority.MONITOR)
+        public void onEvent(EventFireBenchmark.TestEvent event) {
+            // Simulates a metrics or audit listener
+            Blackhole.consumeCPU(2000);
+        }
+    }
+}
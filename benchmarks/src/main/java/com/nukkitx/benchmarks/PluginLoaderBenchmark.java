@@ -0,0 +1,48 @@
+package com.nukkitx.benchmarks;
+
+import com.nukkitx.api.plugin.PluginDescription;
+import com.nukkitx.plugin.loader.JavaPluginLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PluginLoaderBenchmark {
+
+    @Param({"10", "1000"})
+    private int fillerClasses;
+
+    @Param({"true", "false"})
+    private boolean manifestHint;
+
+    private Path directory;
+    private Path jar;
+    private JavaPluginLoader loader;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("plugin-loader-benchmark");
+        jar = directory.resolve("plugin.jar");
+        SyntheticPlugins.writePlugin(jar, "benchmark", fillerClasses, manifestHint);
+        loader = JavaPluginLoader.builder().build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(jar);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public PluginDescription loadPlugin() throws Exception {
+        return loader.loadPlugin(jar);
+    }
+}
@@ -0,0 +1,96 @@
+package com.nukkitx.benchmarks;
+
+import com.nukkitx.api.plugin.PluginDescription;
+import com.nukkitx.event.SimpleEventManager;
+import com.nukkitx.plugin.SimplePluginManager;
+import com.nukkitx.plugin.loader.JavaPluginLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading the descriptions of a directory of plugins, one after another or in parallel. Only the describe
+ * phase of {@link SimplePluginManager#loadPlugins(Path)} is run, so no plugin classes are loaded and nothing has to
+ * be unloaded between invocations. {@link #describePluginsCold()} measures a single scan per fork instead of the steady
+ * state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PluginScanBenchmark {
+
+    @Param({"80"})
+    private int plugins;
+
+    @Param({"500"})
+    private int fillerClasses;
+
+    @Param({"true", "false"})
+    private boolean parallel;
+
+    private Path directory;
+    private ExecutorService pool;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("plugin-scan-benchmark");
+        for (int i = 0; i < plugins; i++) {
+            SyntheticPlugins.writePlugin(directory.resolve("plugin" + i + ".jar"), "plugin" + i, fillerClasses);
+        }
+        pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public Deque<PluginDescription> describePlugins() throws IOException {
+        DescribingPluginManager manager = new DescribingPluginManager();
+        manager.registerLoader(JavaPluginLoader.class, JavaPluginLoader.builder().build());
+        return manager.describePlugins(directory, parallel ? pool : Runnable::run);
+    }
+
+    /**
+     * Describes the plugins once in a fresh JVM, as happens at server startup, where neither the JIT nor the pool's
+     * threads are warm.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(10)
+    public Deque<PluginDescription> describePluginsCold() throws IOException {
+        return describePlugins();
+    }
+
+    private static class DescribingPluginManager extends SimplePluginManager {
+
+        private DescribingPluginManager() {
+            super(new SimpleEventManager());
+        }
+
+        @Override
+        protected Deque<PluginDescription> describePlugins(Path directory, Executor executor) throws IOException {
+            return super.describePlugins(directory, executor);
+        }
+    }
+}
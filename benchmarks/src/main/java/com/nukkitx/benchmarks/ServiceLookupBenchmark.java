@@ -0,0 +1,49 @@
+package com.nukkitx.benchmarks;
+
+import com.nukkitx.api.service.ServiceHandle;
+import com.nukkitx.api.service.ServicePriority;
+import com.nukkitx.api.service.ServiceProvider;
+import com.nukkitx.service.SimpleServiceManager;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ServiceLookupBenchmark {
+
+    private SimpleServiceManager serviceManager;
+    private ServiceHandle<PermissionService> handle;
+
+    @Setup
+    public void setup() {
+        serviceManager = new SimpleServiceManager();
+        Object plugin = new Object();
+        serviceManager.register(PermissionService.class, permission -> false, plugin, ServicePriority.LOW);
+        serviceManager.register(PermissionService.class, permission -> true, plugin, ServicePriority.HIGH);
+        serviceManager.register(Runnable.class, () -> {
+        }, plugin, ServicePriority.NORMAL);
+        handle = serviceManager.getHandle(PermissionService.class);
+    }
+
+    @Benchmark
+    public Optional<ServiceProvider<PermissionService>> getProvider() {
+        return serviceManager.getProvider(PermissionService.class);
+    }
+
+    @Benchmark
+    public ServiceProvider<PermissionService> getHandleProvider() {
+        return handle.getProvider();
+    }
+
+    public interface PermissionService {
+
+        boolean hasPermission(String permission);
+    }
+}
@@ -0,0 +1,108 @@
+package com.nukkitx.benchmarks;
+
+import com.nukkitx.plugin.loader.JavaPluginLoader;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Generates plugin jars for benchmarks.
+ */
+public final class SyntheticPlugins {
+    private static final String PLUGIN_DESCRIPTOR = "Lcom/nukkitx/api/plugin/Plugin;";
+
+    private SyntheticPlugins() {
+    }
+
+    /**
+     * Writes a plugin jar whose main class comes after a number of unrelated classes, like a shaded plugin.
+     *
+     * @param path          the jar to write
+     * @param id            the plugin id
+     * @param fillerClasses the number of classes before the main class
+     * @throws IOException if the jar could not be written
+     */
+    public static void writePlugin(Path path, String id, int fillerClasses) throws IOException {
+        writePlugin(path, id, fillerClasses, false);
+    }
+
+    /**
+     * Writes a plugin jar whose main class comes after a number of unrelated classes, like a shaded plugin.
+     *
+     * @param path          the jar to write
+     * @param id            the plugin id
+     * @param fillerClasses the number of classes before the main class
+     * @param manifestHint  whether to name the main class in the manifest
+     * @throws IOException if the jar could not be written
+     */
+    public static void writePlugin(Path path, String id, int fillerClasses, boolean manifestHint) throws IOException {
+        String pkg = "com/nukkitx/benchmarks/generated/" + id + "/";
+
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (manifestHint) {
+            manifest.getMainAttributes().put(JavaPluginLoader.PLUGIN_CLASS, (pkg + "BenchmarkPlugin").replace('/', '.'));
+        }
+
+        try (OutputStream os = Files.newOutputStream(path);
+             JarOutputStream jos = new JarOutputStream(os, manifest)) {
+            for (int i = 0; i < fillerClasses; i++) {
+                String name = pkg + "shaded/Filler" + i;
+                jos.putNextEntry(new JarEntry(name + ".class"));
+                jos.write(generateClass(name, null));
+                jos.closeEntry();
+            }
+
+            String name = pkg + "BenchmarkPlugin";
+            jos.putNextEntry(new JarEntry(name + ".class"));
+            jos.write(generateClass(name, id));
+            jos.closeEntry();
+        }
+    }
+
+    private static byte[] generateClass(String name, String pluginId) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, name, null, "java/lang/Object", null);
+
+        if (pluginId != null) {
+            AnnotationVisitor av = cw.visitAnnotation(PLUGIN_DESCRIPTOR, true);
+            av.visit("id", pluginId);
+            av.visit("version", "1.0.0");
+            AnnotationVisitor authors = av.visitArray("authors");
+            authors.visit(null, "NukkitX");
+            authors.visitEnd();
+            av.visitEnd();
+        }
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        // Give filler classes some weight
+        for (int i = 0; i < 10; i++) {
+            mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "method" + i, "()Ljava/lang/String;", null, null);
+            mv.visitCode();
+            mv.visitLdcInsn(name + "#method" + i);
+            mv.visitInsn(Opcodes.ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+}
@@ -0,0 +1,24 @@
+package com.nukkitx.event;
+
+import com.nukkitx.event.timings.ListenerTimingsInfo;
+
+import java.util.List;
+
+/**
+ * Management interface of {@link SimpleEventManager}, which can be registered with an
+ * {@link javax.management.MBeanServer}.
+ */
+public interface EventManagerMXBean {
+
+    /**
+     * Gets the timings of every registered listener method.
+     *
+     * @return the timings
+     */
+    List<ListenerTimingsInfo> getListenerTimings();
+
+    /**
+     * Clears the timings of every registered listener method.
+     */
+    void resetListenerTimings();
+}
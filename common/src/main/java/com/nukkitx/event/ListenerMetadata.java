@@ -0,0 +1,67 @@
+package com.nukkitx.event;
+
+import com.nukkitx.api.event.Event;
+import com.nukkitx.api.event.EventPriority;
+import com.nukkitx.api.event.Listener;
+import lombok.Value;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parsed {@link Listener} information of a single listener method.
+ * <p>
+ * Listener classes are only scanned once; the result is cached per class.
+ */
+@Value
+public class ListenerMetadata {
+    private static final ClassValue<List<ListenerMetadata>> CACHE = new ClassValue<List<ListenerMetadata>>() {
+        @Override
+        protected List<ListenerMetadata> computeValue(Class<?> type) {
+            return scan(type);
+        }
+    };
+
+    private final Method method;
+    private final Class<? extends Event> eventClass;
+    private final EventPriority priority;
+    private final boolean ignoreCancelled;
+
+    /**
+     * Gets the listener methods declared by a class.
+     *
+     * @param clazz the listener class
+     * @return an unmodifiable {@link List}, empty if the class has no listener methods
+     * @throws IllegalArgumentException if a listener method is invalid
+     */
+    public static List<ListenerMetadata> forClass(Class<?> clazz) {
+        return CACHE.get(clazz);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<ListenerMetadata> scan(Class<?> clazz) {
+        List<ListenerMetadata> found = new ArrayList<>();
+        for (Method method : clazz.getDeclaredMethods()) {
+            Listener listener = method.getAnnotation(Listener.class);
+            if (listener == null || method.isBridge() || method.isSynthetic()) {
+                continue;
+            }
+            if (method.getParameterCount() != 1) {
+                throw new IllegalArgumentException("Method " + method.getName() + " in " + clazz.getName() + " does not accept only one parameter.");
+            }
+
+            Class<?> eventClass = method.getParameterTypes()[0];
+
+            if (!Event.class.isAssignableFrom(eventClass)) {
+                throw new IllegalArgumentException("Method " + method.getName() + " in " + clazz.getName() + " does not accept a subclass of Event.");
+            }
+
+            method.setAccessible(true);
+            found.add(new ListenerMetadata(method, (Class<? extends Event>) eventClass, listener.priority(),
+                    listener.ignoreCancelled()));
+        }
+        return found.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(found);
+    }
+}
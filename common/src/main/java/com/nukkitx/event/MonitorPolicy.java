@@ -0,0 +1,21 @@
+package com.nukkitx.event;
+
+import com.nukkitx.api.event.EventPriority;
+
+/**
+ * Decides how {@link EventPriority#MONITOR} listeners are called once all other listeners have run.
+ */
+public enum MonitorPolicy {
+    /**
+     * Monitor listeners are called one after another on the firing thread.
+     */
+    SYNCHRONOUS,
+    /**
+     * Monitor listeners are called in parallel and the firing thread waits for all of them to finish.
+     */
+    PARALLEL,
+    /**
+     * Monitor listeners are called in parallel and the firing thread returns immediately.
+     */
+    PARALLEL_FIRE_AND_FORGET
+}
@@ -1,84 +1,161 @@
 package com.nukkitx.event;
 
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.nukkitx.api.event.Event;
 import com.nukkitx.api.event.EventFireHandler;
 import com.nukkitx.api.event.EventManager;
-import com.nukkitx.api.event.Listener;
+import com.nukkitx.api.event.EventPriority;
+import com.nukkitx.api.event.EventType;
+import com.nukkitx.api.event.ListenerBatch;
+import com.nukkitx.api.event.ListenerTimings;
+import com.nukkitx.event.firehandler.ASMEventFireHandler;
+import com.nukkitx.event.firehandler.EventFireHandlerFactory;
+import com.nukkitx.event.firehandler.MonitorEventFireHandler;
 import com.nukkitx.event.firehandler.ReflectionEventFireHandler;
+import com.nukkitx.event.timings.ListenerTimingsInfo;
+import com.nukkitx.event.timings.SimpleListenerTimings;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.Value;
 import lombok.extern.log4j.Log4j2;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
-import java.lang.reflect.Method;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Log4j2
 @ParametersAreNonnullByDefault
-public class SimpleEventManager implements EventManager {
+public class SimpleEventManager implements EventManager, EventManagerMXBean {
+    private static final ClassValue<List<Class<?>>> EVENT_TYPES = new ClassValue<List<Class<?>>>() {
+        @Override
+        protected List<Class<?>> computeValue(Class<?> type) {
+            return findEventTypes(type);
+        }
+    };
+    private static final AtomicLong TABLE_VERSIONS = new AtomicLong();
+    private static final AtomicLong MBEAN_IDS = new AtomicLong();
     private final Map<Object, List<Object>> listenersByPlugin = new HashMap<>();
-    private final Deque<Object> listeners = new ArrayDeque<>();
+    private final Map<Class<? extends Event>, List<ReflectionEventFireHandler.ListenerMethod>> listenerMethods = new HashMap<>();
     private final Object registerLock = new Object();
-    private volatile Map<Class<? extends Event>, EventFireHandler> eventHandlers = Collections.emptyMap();
+    private final EventFireHandlerFactory handlerFactory;
+    private final Executor asyncExecutor;
+    private final MonitorPolicy monitorPolicy;
+    private final Executor monitorExecutor;
+    private final boolean timings;
+    private final long slowListenerThreshold;
+    private volatile HandlerTable eventHandlers = new HandlerTable(Collections.emptyMap());
+
+    public SimpleEventManager() {
+        this(new Builder());
+    }
+
+    private SimpleEventManager(Builder builder) {
+        this.handlerFactory = builder.handlerFactory;
+        this.asyncExecutor = builder.asyncExecutor == null ? createAsyncExecutor() : builder.asyncExecutor;
+        this.monitorPolicy = builder.monitorPolicy;
+        this.monitorExecutor = builder.monitorExecutor;
+        this.timings = builder.timings;
+        this.slowListenerThreshold = builder.slowListenerThreshold;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates the executor used for {@link #fireAsync(Event)} when none is provided. Virtual threads are used when the
+     * runtime supports them.
+     *
+     * @return the executor
+     */
+    private static Executor createAsyncExecutor() {
+        try {
+            // Java 21+
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                    .setNameFormat("Async Event Executor - #%d")
+                    .setDaemon(true)
+                    .build());
+        }
+    }
 
     @Override
     public void registerListeners(Object plugin, Object listener) {
         Preconditions.checkNotNull(plugin, "plugin");
         Preconditions.checkNotNull(listener, "listener");
 
-        // Verify that all listeners are valid.
-        boolean validListener = false;
-        for (Method method : listener.getClass().getDeclaredMethods()) {
-            if (method.isAnnotationPresent(Listener.class)) {
-                if (method.isBridge() || method.isSynthetic()) {
-                    continue;
-                }
-                if (method.getParameterCount() != 1) {
-                    throw new IllegalArgumentException("Method " + method.getName() + " in " + listener + " does not accept only one parameter.");
-                }
-
-                Class<?> eventClass = method.getParameterTypes()[0];
+        if (!validate(plugin, listener)) {
+            return;
+        }
 
-                if (!Event.class.isAssignableFrom(eventClass)) {
-                    throw new IllegalArgumentException("Method " + method.getName() + " in " + listener + " does not accept a subclass of Event.");
-                }
+        synchronized (registerLock) {
+            Set<Class<? extends Event>> changed = new HashSet<>();
+            addListener(plugin, listener, changed);
+            bakeHandlers(changed);
+        }
+    }
 
-                if (eventClass.getAnnotation(Deprecated.class) != null) {
-                    log.warn("{} registered deprecated event {} in {}", plugin.getClass().getSimpleName(),
-                            eventClass.getSimpleName(), listener.getClass().getSimpleName());
-                }
+    @Override
+    public void registerAll(Object plugin, Collection<?> listeners) {
+        Preconditions.checkNotNull(plugin, "plugin");
+        Preconditions.checkNotNull(listeners, "listeners");
 
-                method.setAccessible(true);
-                validListener = true;
+        try (ListenerBatch batch = beginBatch()) {
+            for (Object listener : listeners) {
+                batch.registerListeners(plugin, listener);
             }
         }
+    }
 
-        if (validListener) {
-            synchronized (registerLock) {
-                listenersByPlugin.computeIfAbsent(plugin, k -> new ArrayList<>()).add(listener);
-                listeners.add(listener);
-                bakeHandlers();
-            }
-        }
+    @Override
+    public ListenerBatch beginBatch() {
+        return new SimpleListenerBatch();
     }
 
     @Override
     public void fire(Event event) {
         Preconditions.checkNotNull(event, "event");
-        EventFireHandler handler = eventHandlers.get(event.getClass());
+        EventFireHandler handler = eventHandlers.resolve(event.getClass());
         if (handler != null) {
             handler.fire(event);
         }
     }
 
+    @Override
+    public <T extends Event> CompletableFuture<T> fireAsync(T event) {
+        Preconditions.checkNotNull(event, "event");
+        EventFireHandler handler = eventHandlers.resolve(event.getClass());
+        if (handler == null) {
+            return CompletableFuture.completedFuture(event);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            handler.fire(event);
+            return event;
+        }, asyncExecutor);
+    }
+
     @Override
     public void deregisterListener(Object listener) {
         Preconditions.checkNotNull(listener, "listener");
         synchronized (registerLock) {
-            for (List<Object> listeners : listenersByPlugin.values()) {
-                listeners.remove(listener);
-            }
-            listeners.remove(listener);
-            bakeHandlers();
+            Set<Class<? extends Event>> changed = new HashSet<>();
+            removeListener(listener, changed);
+            bakeHandlers(changed);
         }
     }
 
@@ -87,9 +164,17 @@ public class SimpleEventManager implements EventManager {
         Preconditions.checkNotNull(plugin, "plugin");
         synchronized (registerLock) {
             List<Object> listeners = listenersByPlugin.remove(plugin);
+            Set<Class<? extends Event>> changed = new HashSet<>();
             if (listeners != null) {
-                this.listeners.removeAll(listeners);
-                bakeHandlers();
+                for (Object listener : listeners) {
+                    removeMethods(listener, changed);
+                }
+            }
+            if (changed.isEmpty()) {
+                // Still drop the resolved handlers, which may be keyed by event classes of the plugin's class loader
+                this.eventHandlers = new HandlerTable(eventHandlers.declared);
+            } else {
+                bakeHandlers(changed);
             }
         }
     }
@@ -98,39 +183,395 @@ public class SimpleEventManager implements EventManager {
     public void deregisterListeners(Collection<Object> listeners) {
         Preconditions.checkNotNull(listeners, "listeners");
         synchronized (registerLock) {
-            if (listeners.size() > 0) {
-                this.listeners.removeAll(listeners);
-                bakeHandlers();
+            Set<Class<? extends Event>> changed = new HashSet<>();
+            for (Object listener : listeners) {
+                removeListener(listener, changed);
             }
+            bakeHandlers(changed);
         }
     }
 
+    /**
+     * Gets the listener methods which are called when an event of the given class is fired, including those
+     * listening to its supertypes.
+     *
+     * @param eventClass the event class
+     * @return the listener methods in the order they are called
+     */
+    @Override
     public List<EventFireHandler.ListenerMethod> getEventListenerMethods(Class<? extends Event> eventClass) {
         Preconditions.checkNotNull(eventClass, "eventClass");
-        return eventHandlers.get(eventClass).getMethods();
+        EventFireHandler handler = eventHandlers.resolve(eventClass);
+        return handler == null ? Collections.emptyList() : handler.getMethods();
     }
 
-    @SuppressWarnings("unchecked")
-    private void bakeHandlers() {
-        Map<Class<? extends Event>, List<ReflectionEventFireHandler.ListenerMethod>> listenerMap = new HashMap<>();
+    @Override
+    public boolean hasListeners(Class<? extends Event> eventClass) {
+        Preconditions.checkNotNull(eventClass, "eventClass");
+        return eventHandlers.resolve(eventClass) != null;
+    }
+
+    @Override
+    public <E extends Event> EventType<E> getEventType(Class<E> eventClass) {
+        Preconditions.checkNotNull(eventClass, "eventClass");
+        return new SimpleEventType<>(eventClass);
+    }
 
-        for (Object listener : listeners) {
-            for (Method method : listener.getClass().getDeclaredMethods()) {
-                if (method.isAnnotationPresent(Listener.class)) {
-                    listenerMap.computeIfAbsent((Class<? extends Event>) method.getParameterTypes()[0], (k) -> new ArrayList<>())
-                            .add(new ReflectionEventFireHandler.ListenerMethod(listener, method));
+    @Override
+    public List<ListenerTimingsInfo> getListenerTimings() {
+        List<ListenerTimingsInfo> infos = new ArrayList<>();
+        synchronized (registerLock) {
+            for (Map.Entry<Class<? extends Event>, List<ReflectionEventFireHandler.ListenerMethod>> entry : listenerMethods.entrySet()) {
+                for (ReflectionEventFireHandler.ListenerMethod method : entry.getValue()) {
+                    ListenerTimings timings = method.getTimings();
+                    if (timings != null) {
+                        infos.add(new ListenerTimingsInfo(method.toString(), entry.getKey().getName(),
+                                timings.getInvocations(), timings.getTotalTime(TimeUnit.NANOSECONDS),
+                                timings.getMaxTime(TimeUnit.NANOSECONDS),
+                                timings.getPercentileTime(50, TimeUnit.NANOSECONDS),
+                                timings.getPercentileTime(99, TimeUnit.NANOSECONDS)));
+                    }
                 }
             }
         }
+        return infos;
+    }
+
+    @Override
+    public void resetListenerTimings() {
+        synchronized (registerLock) {
+            for (List<ReflectionEventFireHandler.ListenerMethod> methods : listenerMethods.values()) {
+                for (ReflectionEventFireHandler.ListenerMethod method : methods) {
+                    ListenerTimings timings = method.getTimings();
+                    if (timings != null) {
+                        timings.reset();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers this event manager with the platform {@link MBeanServer}, so listener timings can be read over JMX.
+     * Only possible when timings are enabled.
+     *
+     * @return the name it was registered under
+     * @throws JMException if it could not be registered
+     */
+    public ObjectName registerMBean() throws JMException {
+        Preconditions.checkState(timings, "Timings are disabled");
+        ObjectName name = new ObjectName("com.nukkitx.event:type=EventManager,id=" + MBEAN_IDS.incrementAndGet());
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+        return name;
+    }
+
+    /**
+     * Verifies that all listener methods of an object are valid.
+     *
+     * @return whether the object has any listener methods
+     */
+    private boolean validate(Object plugin, Object listener) {
+        List<ListenerMetadata> metadata = ListenerMetadata.forClass(listener.getClass());
+        for (ListenerMetadata method : metadata) {
+            if (method.getEventClass().getAnnotation(Deprecated.class) != null) {
+                log.warn("{} registered deprecated event {} in {}", plugin.getClass().getSimpleName(),
+                        method.getEventClass().getSimpleName(), listener.getClass().getSimpleName());
+            }
+        }
+        return !metadata.isEmpty();
+    }
+
+    private void addListener(Object plugin, Object listener, Set<Class<? extends Event>> changed) {
+        listenersByPlugin.computeIfAbsent(plugin, k -> new ArrayList<>()).add(listener);
+        addMethods(listener, changed);
+    }
+
+    private void removeListener(Object listener, Set<Class<? extends Event>> changed) {
+        boolean removed = false;
+        for (List<Object> listeners : listenersByPlugin.values()) {
+            removed |= listeners.remove(listener);
+        }
+        if (removed) {
+            removeMethods(listener, changed);
+        }
+    }
+
+    private void addMethods(Object listener, Set<Class<? extends Event>> changed) {
+        for (ListenerMetadata metadata : ListenerMetadata.forClass(listener.getClass())) {
+            listenerMethods.computeIfAbsent(metadata.getEventClass(), k -> new ArrayList<>())
+                    .add(new ReflectionEventFireHandler.ListenerMethod(listener, metadata.getMethod(),
+                            metadata.getPriority(), metadata.isIgnoreCancelled(),
+                            timings ? new SimpleListenerTimings(slowListenerThreshold) : null));
+            changed.add(metadata.getEventClass());
+        }
+    }
+
+    private void removeMethods(Object listener, Set<Class<? extends Event>> changed) {
+        for (ListenerMetadata metadata : ListenerMetadata.forClass(listener.getClass())) {
+            List<ReflectionEventFireHandler.ListenerMethod> methods = listenerMethods.get(metadata.getEventClass());
+            if (methods != null && methods.removeIf(method -> method.getListener() == listener)) {
+                if (methods.isEmpty()) {
+                    listenerMethods.remove(metadata.getEventClass());
+                }
+                changed.add(metadata.getEventClass());
+            }
+        }
+    }
 
-        for (List<ReflectionEventFireHandler.ListenerMethod> methods : listenerMap.values()) {
+    /**
+     * Rebuilds the handlers of the given event types and publishes them. Handlers of other event types are reused.
+     *
+     * @param changed the event types which had listeners added or removed
+     */
+    private void bakeHandlers(Set<Class<? extends Event>> changed) {
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        Map<Class<? extends Event>, EventFireHandler> handlerMap = new HashMap<>(eventHandlers.declared);
+        for (Class<? extends Event> eventClass : changed) {
+            List<ReflectionEventFireHandler.ListenerMethod> methods = listenerMethods.get(eventClass);
+            if (methods == null) {
+                handlerMap.remove(eventClass);
+                continue;
+            }
+
+            List<ReflectionEventFireHandler.ListenerMethod> sorted = new ArrayList<>(methods);
+            Collections.sort(sorted);
+            handlerMap.put(eventClass, createHandler(eventClass, sorted));
+        }
+        this.eventHandlers = new HandlerTable(Collections.unmodifiableMap(handlerMap));
+    }
+
+    private EventFireHandler createHandler(Class<?> eventClass, List<? extends EventFireHandler.ListenerMethod> methods) {
+        if (monitorPolicy != MonitorPolicy.SYNCHRONOUS) {
+            // Methods are sorted so monitors are always last.
+            int monitorIndex = methods.size();
+            while (monitorIndex > 0 && methods.get(monitorIndex - 1).getPriority() == EventPriority.MONITOR) {
+                monitorIndex--;
+            }
+
+            if (monitorIndex < methods.size()) {
+                EventFireHandler handler = monitorIndex == 0 ? null : createHandler0(eventClass, methods.subList(0, monitorIndex));
+                EventFireHandler monitors = createHandler0(eventClass, methods.subList(monitorIndex, methods.size()));
+                return new MonitorEventFireHandler(handler, monitors.getMethods(), monitorExecutor,
+                        monitorPolicy == MonitorPolicy.PARALLEL);
+            }
+        }
+        return createHandler0(eventClass, methods);
+    }
+
+    private EventFireHandler createHandler0(Class<?> eventClass, List<? extends EventFireHandler.ListenerMethod> methods) {
+        try {
+            return handlerFactory.create(methods);
+        } catch (Exception | LinkageError e) {
+            log.warn("Unable to create fire handler for {}, falling back to reflection", eventClass.getName(), e);
+            return new ReflectionEventFireHandler(methods);
+        }
+    }
+
+    private static List<Class<?>> findEventTypes(Class<?> eventClass) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(eventClass);
+        while (!queue.isEmpty()) {
+            Class<?> type = queue.poll();
+            if (!Event.class.isAssignableFrom(type) || !types.add(type)) {
+                continue;
+            }
+            if (type.getSuperclass() != null) {
+                queue.add(type.getSuperclass());
+            }
+            Collections.addAll(queue, type.getInterfaces());
+        }
+        return Collections.unmodifiableList(new ArrayList<>(types));
+    }
+
+    /**
+     * The baked handlers of each event type along with the handlers resolved for each fired event class, which merge
+     * the handlers of all its supertypes. A new table is published whenever listeners change.
+     */
+    private class HandlerTable {
+        private final long version = TABLE_VERSIONS.incrementAndGet();
+        private final Map<Class<? extends Event>, EventFireHandler> declared;
+        private final ConcurrentMap<Class<?>, Optional<EventFireHandler>> resolved = new ConcurrentHashMap<>();
+
+        private HandlerTable(Map<Class<? extends Event>, EventFireHandler> declared) {
+            this.declared = declared;
+        }
+
+        @Nullable
+        private EventFireHandler resolve(Class<?> eventClass) {
+            Optional<EventFireHandler> handler = resolved.get(eventClass);
+            if (handler == null) {
+                handler = resolved.computeIfAbsent(eventClass, this::merge);
+            }
+            return handler.orElse(null);
+        }
+
+        private Optional<EventFireHandler> merge(Class<?> eventClass) {
+            List<EventFireHandler> handlers = new ArrayList<>();
+            for (Class<?> type : EVENT_TYPES.get(eventClass)) {
+                EventFireHandler handler = declared.get(type);
+                if (handler != null) {
+                    handlers.add(handler);
+                }
+            }
+
+            if (handlers.size() <= 1) {
+                return handlers.isEmpty() ? Optional.empty() : Optional.of(handlers.get(0));
+            }
+
+            List<EventFireHandler.ListenerMethod> methods = new ArrayList<>();
+            for (EventFireHandler handler : handlers) {
+                methods.addAll(handler.getMethods());
+            }
             Collections.sort(methods);
+            return Optional.of(createHandler(eventClass, methods));
+        }
+    }
+
+    /**
+     * Caches whether its event class has listeners along with the version of the handler table it was checked
+     * against, so it only looks the handlers up again after they have been rebaked. Holding on to the version rather
+     * than the table means tokens don't keep old listeners reachable.
+     */
+    private class SimpleEventType<E extends Event> implements EventType<E> {
+        private final Class<E> eventClass;
+        private volatile ListenedState state = new ListenedState(0, false);
+
+        private SimpleEventType(Class<E> eventClass) {
+            this.eventClass = eventClass;
+        }
+
+        @Nonnull
+        @Override
+        public Class<E> getEventClass() {
+            return eventClass;
+        }
+
+        @Override
+        public boolean isListened() {
+            ListenedState state = this.state;
+            HandlerTable table = eventHandlers;
+            if (state.version != table.version) {
+                state = new ListenedState(table.version, table.resolve(eventClass) != null);
+                this.state = state;
+            }
+            return state.listened;
+        }
+
+        @Override
+        public String toString() {
+            return "EventType(" + eventClass.getName() + ")";
+        }
+    }
+
+    @Value
+    private static class ListenedState {
+        private final long version;
+        private final boolean listened;
+    }
+
+    private class SimpleListenerBatch implements ListenerBatch {
+        private final List<Object> plugins = new ArrayList<>();
+        private final List<Object> listeners = new ArrayList<>();
+        private boolean committed;
+
+        @Override
+        public ListenerBatch registerListeners(Object plugin, Object listener) {
+            Preconditions.checkNotNull(plugin, "plugin");
+            Preconditions.checkNotNull(listener, "listener");
+            Preconditions.checkState(!committed, "Batch has already been committed");
+
+            if (validate(plugin, listener)) {
+                plugins.add(plugin);
+                listeners.add(listener);
+            }
+            return this;
+        }
+
+        @Override
+        public void commit() {
+            if (committed) {
+                return;
+            }
+            committed = true;
+
+            synchronized (registerLock) {
+                Set<Class<? extends Event>> changed = new HashSet<>();
+                for (int i = 0; i < listeners.size(); i++) {
+                    addListener(plugins.get(i), listeners.get(i), changed);
+                }
+                bakeHandlers(changed);
+            }
+        }
+    }
+
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Builder {
+        private EventFireHandlerFactory handlerFactory = ASMEventFireHandler::new;
+        private Executor asyncExecutor;
+        private MonitorPolicy monitorPolicy = MonitorPolicy.SYNCHRONOUS;
+        private Executor monitorExecutor = ForkJoinPool.commonPool();
+        private boolean timings;
+        private long slowListenerThreshold = TimeUnit.MILLISECONDS.toNanos(5);
+
+        /**
+         * Sets the strategy used to create event handlers. Defaults to {@link ASMEventFireHandler}.
+         */
+        public Builder handlerFactory(EventFireHandlerFactory handlerFactory) {
+            this.handlerFactory = Preconditions.checkNotNull(handlerFactory, "handlerFactory");
+            return this;
+        }
+
+        /**
+         * Sets the executor used by {@link SimpleEventManager#fireAsync(Event)}. Defaults to virtual threads when
+         * available.
+         */
+        public Builder asyncExecutor(Executor asyncExecutor) {
+            this.asyncExecutor = Preconditions.checkNotNull(asyncExecutor, "asyncExecutor");
+            return this;
+        }
+
+        /**
+         * Sets how monitor listeners are called. Defaults to {@link MonitorPolicy#SYNCHRONOUS}.
+         */
+        public Builder monitorPolicy(MonitorPolicy monitorPolicy) {
+            this.monitorPolicy = Preconditions.checkNotNull(monitorPolicy, "monitorPolicy");
+            return this;
+        }
+
+        /**
+         * Sets the executor monitor listeners run on when they are called in parallel. Defaults to the common
+         * {@link ForkJoinPool}.
+         */
+        public Builder monitorExecutor(Executor monitorExecutor) {
+            this.monitorExecutor = Preconditions.checkNotNull(monitorExecutor, "monitorExecutor");
+            return this;
+        }
+
+        /**
+         * Sets whether the invocation times of listener methods are recorded. Defaults to false. The timings can be
+         * exposed over JMX with {@link SimpleEventManager#registerMBean()}.
+         */
+        public Builder timings(boolean timings) {
+            this.timings = timings;
+            return this;
+        }
+
+        /**
+         * Sets the time after which a single listener invocation is logged as slow. Defaults to 5ms.
+         */
+        public Builder slowListenerThreshold(long duration, TimeUnit unit) {
+            Preconditions.checkArgument(duration >= 0, "duration must not be negative");
+            Preconditions.checkNotNull(unit, "unit");
+            this.slowListenerThreshold = unit.toNanos(duration);
+            return this;
         }
 
-        Map<Class<? extends Event>, EventFireHandler> handlerMap = new HashMap<>();
-        for (Map.Entry<Class<? extends Event>, List<ReflectionEventFireHandler.ListenerMethod>> entry : listenerMap.entrySet()) {
-            handlerMap.put(entry.getKey(), new ReflectionEventFireHandler(entry.getValue()));
+        public SimpleEventManager build() {
+            return new SimpleEventManager(this);
         }
-        this.eventHandlers = Collections.unmodifiableMap(handlerMap);
     }
 }
@@ -0,0 +1,186 @@
+package com.nukkitx.event.firehandler;
+
+import com.nukkitx.api.event.Event;
+import com.nukkitx.api.event.EventFireHandler;
+import com.nukkitx.api.event.Eventable;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fires events through classes generated at runtime which invoke each listener method directly instead of going
+ * through {@link Method#invoke(Object, Object...)}.
+ * <p>
+ * Generated classes are defined in a child of the listener's class loader, shared by all listeners of that class
+ * loader, so they can be collected together with the plugin. Only public methods on public classes can be generated; other listener methods are invoked through
+ * {@link MethodHandleEventFireHandler} instead.
+ */
+public class ASMEventFireHandler extends AbstractEventFireHandler {
+    private static final String GENERATED_PACKAGE = "com/nukkitx/event/firehandler/generated/";
+    private static final String EVENTABLE = Type.getInternalName(Eventable.class);
+    private static final String EVENT = Type.getInternalName(Event.class);
+    private static final String OBJECT = Type.getInternalName(Object.class);
+    private static final AtomicInteger ID = new AtomicInteger();
+    // Values are only weakly held as generated loaders reference their parent. Executors keep their loader alive.
+    private static final Map<ClassLoader, WeakReference<GeneratedClassLoader>> LOADERS = new WeakHashMap<>();
+    private static final ClassValue<ConcurrentMap<Method, Constructor<?>>> EXECUTORS = new ClassValue<ConcurrentMap<Method, Constructor<?>>>() {
+        @Override
+        protected ConcurrentMap<Method, Constructor<?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    public ASMEventFireHandler(Collection<? extends EventFireHandler.ListenerMethod> methods) {
+        super(generate(methods));
+    }
+
+    private static List<EventFireHandler.ListenerMethod> generate(Collection<? extends EventFireHandler.ListenerMethod> methods) {
+        List<EventFireHandler.ListenerMethod> generated = new ArrayList<>(methods.size());
+        for (EventFireHandler.ListenerMethod method : methods) {
+            try {
+                generated.add(new ListenerMethod(method));
+            } catch (RuntimeException | LinkageError e) {
+                logFallback(ASMEventFireHandler.class, method, "method handles", e);
+                generated.add(MethodHandleEventFireHandler.createMethod(method));
+            }
+        }
+        return generated;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Eventable<Event> createExecutor(Object listener, Method method) {
+        Constructor<?> constructor = EXECUTORS.get(method.getDeclaringClass())
+                .computeIfAbsent(method, ASMEventFireHandler::defineExecutor);
+        try {
+            return (Eventable<Event>) constructor.newInstance(listener);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to instantiate executor for " + method, e);
+        }
+    }
+
+    private static Constructor<?> defineExecutor(Method method) {
+        Class<?> owner = method.getDeclaringClass();
+        Class<?> eventClass = method.getParameterTypes()[0];
+        if (!Modifier.isPublic(owner.getModifiers()) || !Modifier.isPublic(method.getModifiers()) ||
+                !Modifier.isPublic(eventClass.getModifiers())) {
+            throw new IllegalArgumentException("Method " + method + " is not publicly accessible");
+        }
+
+        String name = GENERATED_PACKAGE + owner.getSimpleName() + '$' + method.getName() + '$' + ID.incrementAndGet();
+        ClassLoader parent = owner.getClassLoader() == null ? ASMEventFireHandler.class.getClassLoader() : owner.getClassLoader();
+
+        Class<?> clazz = define(parent, name.replace('/', '.'), generateExecutor(name, method));
+        if (!Eventable.class.isAssignableFrom(clazz)) {
+            throw new IllegalStateException("Generated executor for " + method + " does not share our Eventable");
+        }
+        try {
+            return clazz.getConstructor(Object.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Class<?> define(ClassLoader parent, String name, byte[] bytes) {
+        synchronized (LOADERS) {
+            WeakReference<GeneratedClassLoader> reference = LOADERS.get(parent);
+            GeneratedClassLoader loader = reference == null ? null : reference.get();
+            if (loader == null) {
+                loader = new GeneratedClassLoader(parent);
+                LOADERS.put(parent, new WeakReference<>(loader));
+            }
+            return loader.define(name, bytes);
+        }
+    }
+
+    private static byte[] generateExecutor(String name, Method method) {
+        String owner = Type.getInternalName(method.getDeclaringClass());
+        String ownerDescriptor = Type.getDescriptor(method.getDeclaringClass());
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+                name, null, OBJECT, new String[]{EVENTABLE});
+
+        if (!isStatic) {
+            cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "listener", ownerDescriptor, null, null).visitEnd();
+        }
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "(Ljava/lang/Object;)V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, OBJECT, "<init>", "()V", false);
+        if (!isStatic) {
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, owner);
+            mv.visitFieldInsn(Opcodes.PUTFIELD, name, "listener", ownerDescriptor);
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "onEvent", "(L" + EVENT + ";)V", null, null);
+        mv.visitCode();
+        if (!isStatic) {
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitFieldInsn(Opcodes.GETFIELD, name, "listener", ownerDescriptor);
+        }
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(method.getParameterTypes()[0]));
+        mv.visitMethodInsn(isStatic ? Opcodes.INVOKESTATIC : Opcodes.INVOKEVIRTUAL, owner, method.getName(),
+                Type.getMethodDescriptor(method), false);
+        Type returnType = Type.getReturnType(method);
+        if (returnType.getSize() > 0) {
+            mv.visitInsn(returnType.getSize() == 2 ? Opcodes.POP2 : Opcodes.POP);
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    public static class ListenerMethod extends AbstractEventFireHandler.ListenerMethod {
+        private final Eventable<Event> executor;
+
+        public ListenerMethod(EventFireHandler.ListenerMethod method) {
+            super(method);
+            this.executor = createExecutor(method.getListener(), method.getMethod());
+        }
+
+        @Override
+        public void run(Event event) {
+            executor.onEvent(event);
+        }
+    }
+
+    private static class GeneratedClassLoader extends ClassLoader {
+
+        static {
+            ClassLoader.registerAsParallelCapable();
+        }
+
+        private GeneratedClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        private Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
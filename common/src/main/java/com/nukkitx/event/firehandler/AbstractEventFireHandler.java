@@ -0,0 +1,153 @@
+package com.nukkitx.event.firehandler;
+
+import com.nukkitx.api.event.Cancellable;
+import com.nukkitx.api.event.Event;
+import com.nukkitx.api.event.EventException;
+import com.nukkitx.api.event.EventFireHandler;
+import com.nukkitx.api.event.EventPriority;
+import com.nukkitx.api.event.ListenerTimings;
+import com.nukkitx.event.timings.SimpleListenerTimings;
+import lombok.extern.log4j.Log4j2;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Log4j2
+public abstract class AbstractEventFireHandler implements EventFireHandler {
+    // Fallbacks which have been logged, by the class declaring the listener method
+    private static final ClassValue<Set<String>> LOGGED_FALLBACKS = new ClassValue<Set<String>>() {
+        @Override
+        protected Set<String> computeValue(Class<?> type) {
+            return ConcurrentHashMap.newKeySet();
+        }
+    };
+    private final EventFireHandler.ListenerMethod[] methods;
+    private final boolean[] ignoreCancelled;
+    private final boolean anyIgnoreCancelled;
+    private final SimpleListenerTimings[] timings;
+
+    protected AbstractEventFireHandler(Collection<? extends EventFireHandler.ListenerMethod> methods) {
+        this.methods = methods.toArray(new EventFireHandler.ListenerMethod[0]);
+        this.ignoreCancelled = new boolean[this.methods.length];
+        this.timings = new SimpleListenerTimings[this.methods.length];
+        boolean anyIgnoreCancelled = false;
+        for (int i = 0; i < this.methods.length; i++) {
+            ignoreCancelled[i] = this.methods[i].isIgnoringCancelled();
+            anyIgnoreCancelled |= ignoreCancelled[i];
+            ListenerTimings timings = this.methods[i].getTimings();
+            if (timings instanceof SimpleListenerTimings) {
+                this.timings[i] = (SimpleListenerTimings) timings;
+            }
+        }
+        this.anyIgnoreCancelled = anyIgnoreCancelled;
+    }
+
+    @Override
+    public void fire(Event event) {
+        // Only cancellable events have to check listeners which ignore cancelled events.
+        Cancellable cancellable = anyIgnoreCancelled && event instanceof Cancellable ? (Cancellable) event : null;
+        for (int i = 0; i < methods.length; i++) {
+            if (cancellable != null && ignoreCancelled[i] && cancellable.isCancelled()) {
+                continue;
+            }
+            EventFireHandler.ListenerMethod method = methods[i];
+            SimpleListenerTimings timing = timings[i];
+            long start = timing == null ? 0 : System.nanoTime();
+            try {
+                method.run(event);
+            } catch (Exception e) {
+                throw new EventException("Exception occurred while executing method " + method + " for " + event, e);
+            }
+            if (timing != null) {
+                long taken = System.nanoTime() - start;
+                if (timing.record(taken)) {
+                    log.warn("Listener {} took {}ms to handle {}", method,
+                            String.format("%.2f", taken / (double) TimeUnit.MILLISECONDS.toNanos(1)), event);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<EventFireHandler.ListenerMethod> getMethods() {
+        return Collections.unmodifiableList(Arrays.asList(methods));
+    }
+
+    /**
+     * Logs that a handler can't invoke a listener method directly and uses a slower invoker for it instead. Handlers
+     * are recreated whenever listeners change, so each fallback is only logged the first time.
+     */
+    protected static void logFallback(Class<? extends EventFireHandler> handler, EventFireHandler.ListenerMethod method,
+                                      String fallback, Throwable cause) {
+        Method listenerMethod = method.getMethod();
+        if (LOGGED_FALLBACKS.get(listenerMethod.getDeclaringClass()).add(handler.getName() + ' ' + listenerMethod)) {
+            log.warn("Unable to use {} for {}, falling back to {}", handler.getSimpleName(), method, fallback, cause);
+        }
+    }
+
+    public static abstract class ListenerMethod implements EventFireHandler.ListenerMethod {
+        private final Object listener;
+        private final Method method;
+        private final EventPriority priority;
+        private final boolean ignoreCancelled;
+        private final ListenerTimings timings;
+
+        protected ListenerMethod(Object listener, Method method, EventPriority priority, boolean ignoreCancelled,
+                                 @Nullable ListenerTimings timings) {
+            this.listener = listener;
+            this.method = method;
+            this.priority = priority;
+            this.ignoreCancelled = ignoreCancelled;
+            this.timings = timings;
+        }
+
+        protected ListenerMethod(EventFireHandler.ListenerMethod method) {
+            this(method.getListener(), method.getMethod(), method.getPriority(), method.isIgnoringCancelled(),
+                    method.getTimings());
+        }
+
+        @Override
+        public String toString() {
+            return listener.getClass().getName() + "#" + method.getName();
+        }
+
+        @Override
+        public Object getListener() {
+            return listener;
+        }
+
+        @Override
+        public Method getMethod() {
+            return method;
+        }
+
+        @Override
+        public EventPriority getPriority() {
+            return priority;
+        }
+
+        @Override
+        public boolean isIgnoringCancelled() {
+            return ignoreCancelled;
+        }
+
+        @Nullable
+        @Override
+        public ListenerTimings getTimings() {
+            return timings;
+        }
+
+        @Override
+        public int compareTo(@Nonnull EventFireHandler.ListenerMethod o) {
+            return Integer.compare(priority.ordinal(), o.getPriority().ordinal());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.nukkitx.event.firehandler;
+
+import com.nukkitx.api.event.EventFireHandler;
+
+import java.util.Collection;
+
+/**
+ * Creates the {@link EventFireHandler} used to dispatch a single event type.
+ * <p>
+ * {@link ReflectionEventFireHandler}, {@link MethodHandleEventFireHandler} and {@link ASMEventFireHandler} can all be
+ * used through their constructors, e.g. {@code ASMEventFireHandler::new}.
+ */
+@FunctionalInterface
+public interface EventFireHandlerFactory {
+
+    /**
+     * Creates a handler for the given listener methods.
+     *
+     * @param methods the listener methods, already sorted by priority
+     * @return the handler
+     * @throws Exception if the handler could not be created
+     */
+    EventFireHandler create(Collection<? extends EventFireHandler.ListenerMethod> methods) throws Exception;
+}
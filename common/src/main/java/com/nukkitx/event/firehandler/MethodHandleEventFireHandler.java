@@ -0,0 +1,191 @@
+package com.nukkitx.event.firehandler;
+
+import com.google.common.base.Throwables;
+import com.nukkitx.api.event.Event;
+import com.nukkitx.api.event.EventFireHandler;
+import com.nukkitx.api.event.Eventable;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Fires events through {@link Eventable} instances spun by {@link LambdaMetafactory} for each listener method.
+ * <p>
+ * The lambda classes are hosted by the listener's class, so they live in the plugin's class loader and are unloaded
+ * with it. Java 16 and newer only spin lambdas for a lookup with full privilege access, which a lookup into another
+ * class loader's listener doesn't have. Such listeners are invoked through a bound {@link MethodHandle} instead,
+ * which is slower than a lambda but still avoids reflection. Either way non-public listeners can be used, unlike
+ * with {@link ASMEventFireHandler}. Listener methods which can't be looked up at all are invoked through reflection.
+ */
+public class MethodHandleEventFireHandler extends AbstractEventFireHandler {
+    private static final MethodType SAM_TYPE = MethodType.methodType(void.class, Event.class);
+    private static final int ALL_MODES = MethodHandles.Lookup.PUBLIC | MethodHandles.Lookup.PRIVATE |
+            MethodHandles.Lookup.PROTECTED | MethodHandles.Lookup.PACKAGE;
+    private static final Method PRIVATE_LOOKUP_IN;
+    private static final Constructor<MethodHandles.Lookup> LOOKUP_CONSTRUCTOR;
+    private static final MethodHandle BIND_EXECUTOR;
+    private static final MethodHandle STATIC_EXECUTOR;
+    private static final ClassValue<ConcurrentMap<Method, MethodHandle>> FACTORIES = new ClassValue<ConcurrentMap<Method, MethodHandle>>() {
+        @Override
+        protected ConcurrentMap<Method, MethodHandle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    static {
+        Method privateLookupIn = null;
+        Constructor<MethodHandles.Lookup> lookupConstructor = null;
+        try {
+            // Java 9+
+            privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+        } catch (NoSuchMethodException e) {
+            try {
+                lookupConstructor = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class, int.class);
+                lookupConstructor.setAccessible(true);
+            } catch (ReflectiveOperationException | RuntimeException ignored) {
+                // Only public listeners can be used
+            }
+        }
+        PRIVATE_LOOKUP_IN = privateLookupIn;
+        LOOKUP_CONSTRUCTOR = lookupConstructor;
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            BIND_EXECUTOR = lookup.findStatic(MethodHandleEventFireHandler.class, "bindExecutor",
+                    MethodType.methodType(Eventable.class, MethodHandle.class, Object.class));
+            STATIC_EXECUTOR = lookup.findConstructor(HandleExecutor.class,
+                    MethodType.methodType(void.class, MethodHandle.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    public MethodHandleEventFireHandler(Collection<? extends EventFireHandler.ListenerMethod> methods) {
+        super(generate(methods));
+    }
+
+    private static List<EventFireHandler.ListenerMethod> generate(Collection<? extends EventFireHandler.ListenerMethod> methods) {
+        List<EventFireHandler.ListenerMethod> generated = new ArrayList<>(methods.size());
+        for (EventFireHandler.ListenerMethod method : methods) {
+            generated.add(createMethod(method));
+        }
+        return generated;
+    }
+
+    /**
+     * Wraps a single listener method, using reflection if no method handle can be created for it.
+     *
+     * @param method the listener method
+     * @return the wrapped listener method
+     */
+    static EventFireHandler.ListenerMethod createMethod(EventFireHandler.ListenerMethod method) {
+        try {
+            return new ListenerMethod(method);
+        } catch (RuntimeException | LinkageError e) {
+            logFallback(MethodHandleEventFireHandler.class, method, "reflection", e);
+            return new ReflectionEventFireHandler.ListenerMethod(method);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Eventable<Event> createExecutor(Object listener, Method method) {
+        MethodHandle factory = FACTORIES.get(method.getDeclaringClass())
+                .computeIfAbsent(method, MethodHandleEventFireHandler::createFactory);
+        try {
+            if (Modifier.isStatic(method.getModifiers())) {
+                return (Eventable<Event>) factory.invoke();
+            }
+            return (Eventable<Event>) factory.invoke(listener);
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Unable to instantiate executor for " + method, throwable);
+        }
+    }
+
+    private static MethodHandle createFactory(Method method) {
+        Class<?> owner = method.getDeclaringClass();
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        try {
+            MethodHandles.Lookup lookup = privateLookupIn(owner);
+            MethodHandle target = lookup.unreflect(method);
+            MethodType invokedType = isStatic ?
+                    MethodType.methodType(Eventable.class) : MethodType.methodType(Eventable.class, owner);
+
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "onEvent", invokedType, SAM_TYPE,
+                        target, MethodType.methodType(void.class, method.getParameterTypes()[0]));
+                return site.getTarget();
+            } catch (LambdaConversionException e) {
+                // Invalid caller on Java 16+, so call the method handle itself
+                if (isStatic) {
+                    return STATIC_EXECUTOR.bindTo(target.asType(SAM_TYPE));
+                }
+                return BIND_EXECUTOR.bindTo(target.asType(MethodType.methodType(void.class, Object.class, Event.class)));
+            }
+        } catch (Throwable throwable) {
+            throw new IllegalArgumentException("Unable to create executor factory for " + method, throwable);
+        }
+    }
+
+    private static MethodHandles.Lookup privateLookupIn(Class<?> clazz) throws ReflectiveOperationException {
+        if (PRIVATE_LOOKUP_IN != null) {
+            return (MethodHandles.Lookup) PRIVATE_LOOKUP_IN.invoke(null, clazz, MethodHandles.lookup());
+        }
+        if (LOOKUP_CONSTRUCTOR != null) {
+            return LOOKUP_CONSTRUCTOR.newInstance(clazz, ALL_MODES);
+        }
+        return MethodHandles.publicLookup().in(clazz);
+    }
+
+    private static Eventable<Event> bindExecutor(MethodHandle target, Object listener) {
+        return new HandleExecutor(target.bindTo(listener));
+    }
+
+    /**
+     * Calls a method handle taking only the event. The handle can't be constant folded from a field, but
+     * {@link MethodHandle#invokeExact(Object...)} still avoids the checks and boxing of reflection.
+     */
+    private static class HandleExecutor implements Eventable<Event> {
+        private final MethodHandle handle;
+
+        HandleExecutor(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public void onEvent(Event event) {
+            try {
+                handle.invokeExact(event);
+            } catch (Throwable throwable) {
+                Throwables.throwIfUnchecked(throwable);
+                throw new UndeclaredThrowableException(throwable);
+            }
+        }
+    }
+
+    public static class ListenerMethod extends AbstractEventFireHandler.ListenerMethod {
+        private final Eventable<Event> executor;
+
+        public ListenerMethod(EventFireHandler.ListenerMethod method) {
+            super(method);
+            this.executor = createExecutor(method.getListener(), method.getMethod());
+        }
+
+        @Override
+        public void run(Event event) {
+            executor.onEvent(event);
+        }
+    }
+}
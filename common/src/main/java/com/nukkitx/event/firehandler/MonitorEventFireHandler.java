@@ -0,0 +1,119 @@
+package com.nukkitx.event.firehandler;
+
+import com.nukkitx.api.event.Cancellable;
+import com.nukkitx.api.event.Event;
+import com.nukkitx.api.event.EventException;
+import com.nukkitx.api.event.EventFireHandler;
+import com.nukkitx.api.event.ListenerTimings;
+import com.nukkitx.event.timings.SimpleListenerTimings;
+import lombok.extern.log4j.Log4j2;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires an event through a handler and then hands each monitor listener to an {@link Executor} so they run in
+ * parallel. Monitor listeners must therefore be thread-safe.
+ */
+@Log4j2
+public class MonitorEventFireHandler implements EventFireHandler {
+    private final EventFireHandler handler;
+    private final EventFireHandler.ListenerMethod[] monitors;
+    private final Executor executor;
+    private final boolean await;
+
+    /**
+     * @param handler  the handler for all non-monitor listeners, if there are any
+     * @param monitors the monitor listeners
+     * @param executor the executor monitor listeners are called on
+     * @param await    whether to wait for the monitor listeners to finish
+     */
+    public MonitorEventFireHandler(@Nullable EventFireHandler handler, Collection<? extends EventFireHandler.ListenerMethod> monitors,
+                                   Executor executor, boolean await) {
+        this.handler = handler;
+        this.monitors = monitors.toArray(new EventFireHandler.ListenerMethod[0]);
+        this.executor = executor;
+        this.await = await;
+    }
+
+    @Override
+    public void fire(Event event) {
+        if (handler != null) {
+            handler.fire(event);
+        }
+
+        boolean cancelled = event instanceof Cancellable && ((Cancellable) event).isCancelled();
+        if (!await) {
+            for (EventFireHandler.ListenerMethod method : monitors) {
+                if (!cancelled || !method.isIgnoringCancelled()) {
+                    executor.execute(() -> {
+                        try {
+                            run(method, event);
+                        } catch (Exception e) {
+                            log.error("Exception occurred while executing method {} for {}", method, event, e);
+                        }
+                    });
+                }
+            }
+            return;
+        }
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[monitors.length];
+        for (int i = 0; i < monitors.length; i++) {
+            EventFireHandler.ListenerMethod method = monitors[i];
+            if (cancelled && method.isIgnoringCancelled()) {
+                futures[i] = CompletableFuture.completedFuture(null);
+                continue;
+            }
+            futures[i] = CompletableFuture.runAsync(() -> {
+                try {
+                    run(method, event);
+                } catch (Exception e) {
+                    throw new EventException("Exception occurred while executing method " + method + " for " + event, e);
+                }
+            }, executor);
+        }
+
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof EventException) {
+                throw (EventException) e.getCause();
+            }
+            throw new EventException(e.getCause());
+        }
+    }
+
+    private static void run(EventFireHandler.ListenerMethod method, Event event) throws Exception {
+        ListenerTimings timings = method.getTimings();
+        if (!(timings instanceof SimpleListenerTimings)) {
+            method.run(event);
+            return;
+        }
+
+        long start = System.nanoTime();
+        method.run(event);
+        long taken = System.nanoTime() - start;
+        if (((SimpleListenerTimings) timings).record(taken)) {
+            log.warn("Listener {} took {}ms to handle {}", method,
+                    String.format("%.2f", taken / (double) TimeUnit.MILLISECONDS.toNanos(1)), event);
+        }
+    }
+
+    @Override
+    public List<EventFireHandler.ListenerMethod> getMethods() {
+        List<EventFireHandler.ListenerMethod> methods = new ArrayList<>();
+        if (handler != null) {
+            methods.addAll(handler.getMethods());
+        }
+        Collections.addAll(methods, monitors);
+        return Collections.unmodifiableList(methods);
+    }
+}
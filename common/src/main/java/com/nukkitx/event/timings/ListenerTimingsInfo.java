@@ -0,0 +1,17 @@
+package com.nukkitx.event.timings;
+
+import lombok.Value;
+
+/**
+ * A snapshot of a listener method's timings, as exposed through JMX.
+ */
+@Value
+public class ListenerTimingsInfo {
+    private final String listener;
+    private final String event;
+    private final long invocations;
+    private final long totalTimeNanos;
+    private final long maxTimeNanos;
+    private final long medianTimeNanos;
+    private final long p99TimeNanos;
+}
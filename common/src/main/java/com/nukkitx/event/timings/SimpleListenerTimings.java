@@ -0,0 +1,100 @@
+package com.nukkitx.event.timings;
+
+import com.google.common.base.Preconditions;
+import com.nukkitx.api.event.ListenerTimings;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records listener invocation times into a fixed set of power-of-two buckets, so recording never allocates.
+ */
+public class SimpleListenerTimings implements ListenerTimings {
+    // Bucket n holds times in [2^(n-1), 2^n) nanoseconds, the last one holds everything above.
+    private static final int BUCKETS = 48;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder totalTime = new LongAdder();
+    private final AtomicLong maxTime = new AtomicLong();
+    private final long slowThreshold;
+
+    /**
+     * @param slowThreshold the time in nanoseconds after which an invocation is considered slow
+     */
+    public SimpleListenerTimings(long slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    /**
+     * Records a single invocation.
+     *
+     * @param nanos the time the invocation took in nanoseconds
+     * @return whether the invocation was slow
+     */
+    public boolean record(long nanos) {
+        invocations.increment();
+        totalTime.add(nanos);
+        buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos)));
+
+        long max;
+        while (nanos > (max = maxTime.get())) {
+            if (maxTime.compareAndSet(max, nanos)) {
+                break;
+            }
+        }
+        return nanos >= slowThreshold;
+    }
+
+    @Override
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    @Override
+    public long getTotalTime(TimeUnit unit) {
+        return unit.convert(totalTime.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public long getMaxTime(TimeUnit unit) {
+        return unit.convert(maxTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public long getPercentileTime(double percentile, TimeUnit unit) {
+        Preconditions.checkArgument(percentile >= 0 && percentile <= 100, "percentile must be between 0 and 100");
+
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                long upperBound = i == BUCKETS - 1 ? maxTime.get() : Math.min(1L << i, maxTime.get());
+                return unit.convert(upperBound, TimeUnit.NANOSECONDS);
+            }
+        }
+        return unit.convert(maxTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        invocations.reset();
+        totalTime.reset();
+        maxTime.set(0);
+    }
+}
@@ -1,12 +1,19 @@
 package com.nukkitx.plugin;
 
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.nukkitx.api.event.EventManager;
+import com.nukkitx.api.event.ListenerBatch;
 import com.nukkitx.api.plugin.*;
+import com.nukkitx.api.service.ServiceManager;
+import com.nukkitx.api.service.ServiceProvider;
+import com.nukkitx.plugin.util.CycleException;
 import com.nukkitx.plugin.util.DirectedAcyclicGraph;
 import com.nukkitx.plugin.util.GraphException;
-import lombok.RequiredArgsConstructor;
+import com.nukkitx.service.SimpleServiceManager;
 import lombok.extern.log4j.Log4j2;
 
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.io.IOException;
 import java.nio.file.DirectoryStream;
@@ -14,14 +21,43 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 
 @Log4j2
-@RequiredArgsConstructor
 @ParametersAreNonnullByDefault
 public class SimplePluginManager implements PluginManager {
     private final Map<Object, PluginContainer> plugins = new HashMap<>();
     private final Map<Class, PluginLoader> loaders = new HashMap<>();
     private final EventManager eventManager;
+    private final ServiceManager serviceManager;
+    private final Executor loadExecutor;
+
+    public SimplePluginManager(EventManager eventManager) {
+        this(eventManager, null, null);
+    }
+
+    public SimplePluginManager(EventManager eventManager, @Nullable Executor loadExecutor) {
+        this(eventManager, null, loadExecutor);
+    }
+
+    /**
+     * Creates a plugin manager which loads plugins on the given executor.
+     *
+     * @param eventManager   the event manager
+     * @param serviceManager the service manager to cancel an unloaded plugin's services from, or {@code null}
+     * @param loadExecutor   the executor to load plugins on, or {@code null} to use a temporary pool for each call to
+     *                       {@link #loadPlugins(Path)}
+     */
+    public SimplePluginManager(EventManager eventManager, @Nullable ServiceManager serviceManager,
+                               @Nullable Executor loadExecutor) {
+        this.eventManager = Objects.requireNonNull(eventManager, "eventManager");
+        this.serviceManager = serviceManager;
+        this.loadExecutor = loadExecutor;
+    }
 
     public <T extends PluginLoader> boolean registerLoader(Class<T> clazz, T loader) {
         Objects.requireNonNull(clazz, "clazz");
@@ -67,77 +103,264 @@ public class SimplePluginManager implements PluginManager {
         return plugins.containsKey(id);
     }
 
+    @Override
+    public boolean unloadPlugin(String id) {
+        Objects.requireNonNull(id, "id");
+        PluginContainer plugin = plugins.get(id);
+        if (plugin == null) {
+            return false;
+        }
+
+        // Dependents hold on to the plugin's classes, so they have to be unloaded first
+        for (PluginContainer other : plugins.values()) {
+            for (PluginDependency dependency : other.getDependencies()) {
+                if (dependency.getId().equals(id)) {
+                    throw new IllegalStateException("Cannot unload plugin " + id + " as " + other.getId() + " depends on it");
+                }
+            }
+        }
+
+        eventManager.deregisterAllListeners(plugin.getPlugin());
+        if (serviceManager != null) {
+            serviceManager.cancel(plugin.getPlugin());
+        }
+        plugins.remove(id);
+
+        try {
+            plugin.getPluginLoader().unloadPlugin(plugin);
+        } catch (Exception e) {
+            log.error("Unable to release resources of plugin {}", id, e);
+        }
+        return true;
+    }
+
     public void loadPlugins(Path directory) throws IOException {
         Objects.requireNonNull(directory, "directory");
         if (!Files.isDirectory(directory)) {
             throw new IllegalArgumentException("Path provided is not a directory");
         }
 
-        Deque<PluginDescription> found = new ArrayDeque<>();
+        ExecutorService pool = loadExecutor == null ? createLoadPool() : null;
+        Executor executor = loadExecutor != null ? loadExecutor : pool != null ? pool : Runnable::run;
+        try {
+            Deque<PluginDescription> found = describePlugins(directory, executor);
 
-        synchronized (loaders) {
-            for (PluginLoader loader : loaders.values()) {
-                PathMatcher matcher = loader.getPathMatcher();
-                try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, p -> Files.isRegularFile(p) && matcher.matches(p))) {
-                    for (Path path : stream) {
-                        try {
-                            found.add(loader.loadPlugin(path));
-                        } catch (Exception e) {
-                            log.error("Unable to load description plugin {}", path, e);
+            if (found.isEmpty()) {
+                return;
+            }
+
+            Collection<PluginDescription> sorted = sortDescriptions(found);
+
+            // Plugins in the same wave don't depend on each other, so they can be created at the same time
+            for (List<PluginDescription> wave : splitWaves(sorted)) {
+                List<PluginContainer> created = runInParallel(wave, this::createPlugin, executor);
+
+                // Listeners are baked once for each wave
+                try (ListenerBatch batch = eventManager.beginBatch()) {
+                    for (PluginContainer plugin : created) {
+                        if (plugin == null) {
+                            continue;
                         }
+
+                        // Register main class as listener
+                        batch.registerListeners(plugin.getPlugin(), plugin.getPlugin());
+
+                        plugins.put(plugin.getId(), plugin);
                     }
                 }
             }
+
+            reportUnmaterializedProviders();
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
         }
+    }
 
-        if (found.isEmpty()) {
+    /**
+     * Logs the lazy service providers which no plugin asked for while loading, as they may not be needed at all.
+     */
+    private void reportUnmaterializedProviders() {
+        if (!(serviceManager instanceof SimpleServiceManager)) {
             return;
         }
 
-        Collection<PluginDescription> sorted = sortDescriptions(found);
+        List<ServiceProvider<?>> unmaterialized = ((SimpleServiceManager) serviceManager).getUnmaterializedProviders();
+        if (!unmaterialized.isEmpty()) {
+            StringJoiner services = new StringJoiner(", ");
+            for (ServiceProvider<?> provider : unmaterialized) {
+                services.add(provider.getService().getName());
+            }
+            log.info("{} lazy service provider(s) were not used while loading plugins: {}", unmaterialized.size(), services);
+        }
+    }
 
-        load:
-        for (PluginDescription description : sorted) {
+    /**
+     * Creates the pool used for a single call to {@link #loadPlugins(Path)} when no executor was provided.
+     *
+     * @return the pool, or {@code null} if plugins should be loaded on the calling thread
+     */
+    @Nullable
+    private static ExecutorService createLoadPool() {
+        // Loading plugins is mostly inflating, parsing and defining classes, so more threads than cores doesn't help
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (threads <= 1) {
+            return null;
+        }
+        // Threads are only started as tasks are submitted, so small loads don't start a thread per core
+        return Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+                .setNameFormat("Plugin Loader - #%d")
+                .setDaemon(true)
+                .build());
+    }
 
-            for (PluginDependency dependency : description.getDependencies()) {
-                Optional<PluginContainer> loadedPlugin = getPlugin(dependency.getId());
-                if ((!loadedPlugin.isPresent() && !dependency.isOptional()) ||
-                        (loadedPlugin.isPresent() && !loadedPlugin.get().getVersion().equals(dependency.getVersion()))) {
-                    log.error("Cannot load plugin {} due to missing dependency {}", description.getId(), dependency.getId());
-                    continue load;
-                }
+    /**
+     * Reads the descriptions of all plugins in the directory in parallel. Descriptions are returned in the same order
+     * regardless of which finishes first, and a plugin which fails to load is logged and skipped.
+     *
+     * @param directory the directory containing the plugins
+     * @param executor  the executor to read descriptions on
+     * @return the descriptions
+     * @throws IOException if the directory could not be listed
+     */
+    protected Deque<PluginDescription> describePlugins(Path directory, Executor executor) throws IOException {
+        List<PluginLoader> loaders;
+        synchronized (this.loaders) {
+            loaders = new ArrayList<>(this.loaders.values());
+        }
+
+        Map<Path, PluginLoader> candidates = new LinkedHashMap<>();
+        for (PluginLoader loader : loaders) {
+            PathMatcher matcher = loader.getPathMatcher();
+            List<Path> paths = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, p -> Files.isRegularFile(p) && matcher.matches(p))) {
+                stream.forEach(paths::add);
+            }
+            Collections.sort(paths);
+            for (Path path : paths) {
+                candidates.putIfAbsent(path, loader);
             }
+        }
+
+        Deque<PluginDescription> found = new ArrayDeque<>();
+        for (PluginDescription description : runInParallel(candidates.entrySet(),
+                entry -> describePlugin(entry.getValue(), entry.getKey()), executor)) {
+            if (description != null) {
+                found.add(description);
+            }
+        }
 
-            PluginContainer plugin;
+        for (PluginLoader loader : loaders) {
             try {
-                plugin = description.getPluginLoader().createPlugin(description);
+                loader.descriptionsLoaded();
             } catch (Exception e) {
-                log.error("Cannot instantiate plugin {}", description.getId(), e);
-                continue;
+                log.error("Unable to finish reading plugin descriptions with {}", loader.getClass().getName(), e);
+            }
+        }
+        return found;
+    }
+
+    @Nullable
+    private static PluginDescription describePlugin(PluginLoader loader, Path path) {
+        try {
+            return loader.loadPlugin(path);
+        } catch (Exception e) {
+            log.error("Unable to load description plugin {}", path, e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private PluginContainer createPlugin(PluginDescription description) {
+        for (PluginDependency dependency : description.getDependencies()) {
+            Optional<PluginContainer> loadedPlugin = getPlugin(dependency.getId());
+            if ((!loadedPlugin.isPresent() && !dependency.isOptional()) ||
+                    (loadedPlugin.isPresent() && !Strings.isNullOrEmpty(dependency.getVersion()) &&
+                            !loadedPlugin.get().getVersion().equals(dependency.getVersion()))) {
+                log.error("Cannot load plugin {} due to missing dependency {}", description.getId(), dependency.getId());
+                return null;
+            }
+        }
+
+        try {
+            return description.getPluginLoader().createPlugin(description);
+        } catch (Exception | LinkageError e) {
+            // A broken plugin jar must not take down the rest of its wave
+            log.error("Cannot instantiate plugin {}", description.getId(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Splits sorted descriptions into waves, where each plugin only depends on plugins in earlier waves.
+     */
+    private static List<List<PluginDescription>> splitWaves(Collection<PluginDescription> sorted) {
+        Map<String, Integer> levels = new HashMap<>();
+        List<List<PluginDescription>> waves = new ArrayList<>();
+        for (PluginDescription description : sorted) {
+            int level = 0;
+            for (PluginDependency dependency : description.getDependencies()) {
+                Integer dependencyLevel = levels.get(dependency.getId());
+                if (dependencyLevel != null) {
+                    level = Math.max(level, dependencyLevel + 1);
+                }
             }
+            levels.put(description.getId(), level);
 
-            // Register main class as listener
-            eventManager.registerListeners(plugin.getPlugin(), plugin.getPlugin());
+            if (level == waves.size()) {
+                waves.add(new ArrayList<>());
+            }
+            waves.get(level).add(description);
+        }
+        return waves;
+    }
 
-            plugins.put(description.getId(), plugin);
+    /**
+     * Applies the function to every element on the executor and returns the results in the same order as the
+     * elements.
+     */
+    private static <T, R> List<R> runInParallel(Collection<T> elements, Function<T, R> function, Executor executor) {
+        List<CompletableFuture<R>> futures = new ArrayList<>(elements.size());
+        for (T element : elements) {
+            futures.add(CompletableFuture.supplyAsync(() -> function.apply(element), executor));
         }
+
+        List<R> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<R> future : futures) {
+            results.add(future.join());
+        }
+        return results;
     }
 
     protected Collection<PluginDescription> sortDescriptions(Deque<PluginDescription> unsorted) {
         DirectedAcyclicGraph<PluginDescription> graph = new DirectedAcyclicGraph<>();
 
+        Map<String, PluginDescription> byId = new HashMap<>();
+        for (PluginDescription description : unsorted) {
+            byId.putIfAbsent(description.getId(), description);
+        }
+
         for (PluginDescription description : unsorted) {
             graph.add(description);
 
             for (PluginDependency dependency : description.getDependencies()) {
-                Optional<PluginDescription> in = unsorted.stream().filter(desc -> desc.getId().equals(dependency.getId())).findFirst();
-                in.ifPresent(desc -> graph.addEdges(description, desc));
+                PluginDescription in = byId.get(dependency.getId());
+                if (in != null) {
+                    graph.addEdges(description, in);
+                }
             }
         }
 
         Collection<PluginDescription> sorted;
         try {
             sorted = graph.sort();
+        } catch (CycleException e) {
+            StringJoiner cycle = new StringJoiner(" -> ");
+            for (Object description : e.getCycle()) {
+                cycle.add(((PluginDescription) description).getId());
+            }
+            throw new IllegalStateException("Circular dependency found: " + cycle, e);
         } catch (GraphException e) {
             throw new IllegalStateException("Circular dependency found", e);
         }
@@ -2,12 +2,15 @@ package com.nukkitx.plugin.loader;
 
 import ch.jalu.injector.Injector;
 import ch.jalu.injector.InjectorBuilder;
+import com.google.common.base.Strings;
 import com.nukkitx.api.plugin.*;
+import com.nukkitx.api.plugin.processor.PluginProcessor;
 import com.nukkitx.plugin.SimplePluginContainer;
 import com.nukkitx.plugin.SimplePluginDependency;
 import com.nukkitx.plugin.loader.java.JavaPluginClassLoader;
 import com.nukkitx.plugin.loader.java.JavaPluginDescription;
 import com.nukkitx.plugin.loader.java.PluginClassVisitor;
+import com.nukkitx.plugin.loader.java.PluginDescriptionCache;
 import com.nukkitx.plugin.loader.java.PluginInformation;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -16,25 +19,36 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
-import java.io.BufferedInputStream;
+import javax.annotation.Nullable;
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
 import java.net.URL;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
-import java.util.jar.JarInputStream;
+import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 
 public class JavaPluginLoader implements PluginLoader {
+    /**
+     * Manifest attribute naming the plugin's main class, which is checked before scanning the whole jar.
+     */
+    public static final Attributes.Name PLUGIN_CLASS = new Attributes.Name("Plugin-Class");
     private static final PathMatcher PATH_MATCHER = FileSystems.getDefault().getPathMatcher("glob:**.jar");
     private final Map<Class, Object> dependencies = new HashMap<>();
+    private final PluginDescriptionCache descriptionCache;
+    private final ConcurrentMap<String, JavaPluginClassLoader> classLoaders = new ConcurrentHashMap<>();
 
-    private JavaPluginLoader(Map<Class, Object> dependencies) {
+    private JavaPluginLoader(Map<Class, Object> dependencies, @Nullable Path descriptionCache) {
         this.dependencies.putAll(dependencies);
+        this.descriptionCache = descriptionCache == null ? null : new PluginDescriptionCache(descriptionCache, this);
     }
 
     public static Builder builder() {
@@ -46,41 +60,100 @@ public class JavaPluginLoader implements PluginLoader {
     public PluginDescription loadPlugin(@Nonnull Path path) throws Exception {
         Objects.requireNonNull(path, "path");
 
-        try (JarInputStream jis = new JarInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
-            Manifest manifest = jis.getManifest();
+        if (descriptionCache == null) {
+            return readDescription(path);
+        }
+
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        JavaPluginDescription description = descriptionCache.get(path, attributes);
+        if (description == null) {
+            description = readDescription(path);
+            descriptionCache.put(path, attributes, description);
+        }
+        return description;
+    }
+
+    private JavaPluginDescription readDescription(Path path) throws IOException, PluginException {
+        try (JarFile jar = new JarFile(path.toFile())) {
+            JarEntry descriptor = jar.getJarEntry(PluginProcessor.DESCRIPTOR);
+            if (descriptor != null) {
+                return readDescriptor(path, jar, descriptor);
+            }
+
+            Manifest manifest = jar.getManifest();
             if (manifest == null) {
                 throw new IllegalArgumentException("Jar has no manifest");
             }
 
-            JarEntry entry;
-            while ((entry = jis.getNextJarEntry()) != null) {
+            // Check the class named by the manifest first so only one entry has to be inflated
+            String pluginClass = manifest.getMainAttributes().getValue(PLUGIN_CLASS);
+            if (pluginClass != null) {
+                JarEntry entry = jar.getJarEntry(pluginClass.replace('.', '/') + ".class");
+                if (entry != null) {
+                    Optional<PluginInformation> information = getInformation(jar, entry);
+                    if (information.isPresent()) {
+                        return createDescription(path, information.get());
+                    }
+                }
+            }
+
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
                 if (entry.isDirectory() || !entry.getName().endsWith(".class")) {
                     continue;
                 }
 
-                Optional<PluginInformation> optionalInfo = getInformation(jis);
-
-                if (optionalInfo.isPresent()) {
-                    PluginInformation information = optionalInfo.get();
-
-                    List<PluginDependency> dependencies = new ArrayList<>();
-                    for (Dependency dependency : information.getDependencies()) {
-                        dependencies.add(new SimplePluginDependency(dependency.id(), dependency.version(), dependency.optional()));
-                    }
-
-                    try {
-                        return new JavaPluginDescription(information.getId(), information.getName(), information.getVersion(),
-                                information.getAuthors(), information.getDescription(), dependencies, information.getUrl(),
-                                path, this, information.getClassName());
-                    } catch (NullPointerException e) {
-                        throw new IllegalArgumentException("Plugin does not contain the correct information", e);
-                    }
+                Optional<PluginInformation> information = getInformation(jar, entry);
+                if (information.isPresent()) {
+                    return createDescription(path, information.get());
                 }
             }
         }
         throw new PluginException("No main class found");
     }
 
+    private JavaPluginDescription readDescriptor(Path path, JarFile jar, JarEntry entry) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream is = jar.getInputStream(entry)) {
+            properties.load(is);
+        }
+
+        List<String> authors = new ArrayList<>();
+        for (int i = 0; properties.containsKey("author." + i); i++) {
+            authors.add(properties.getProperty("author." + i));
+        }
+
+        List<PluginDependency> dependencies = new ArrayList<>();
+        for (int i = 0; properties.containsKey("dependency." + i + ".id"); i++) {
+            String prefix = "dependency." + i + '.';
+            dependencies.add(new SimplePluginDependency(properties.getProperty(prefix + "id"),
+                    properties.getProperty(prefix + "version", ""),
+                    Boolean.parseBoolean(properties.getProperty(prefix + "optional"))));
+        }
+
+        // Unset annotation values are written as empty strings but are missing when scanned
+        try {
+            return new JavaPluginDescription(properties.getProperty("id"), properties.getProperty("name"),
+                    properties.getProperty("version"), authors,
+                    Strings.emptyToNull(properties.getProperty("description")), dependencies,
+                    Strings.emptyToNull(properties.getProperty("url")), path, this,
+                    properties.getProperty("class").replace('.', '/'));
+        } catch (NullPointerException e) {
+            throw new IllegalArgumentException(PluginProcessor.DESCRIPTOR + " does not contain the correct information", e);
+        }
+    }
+
+    private JavaPluginDescription createDescription(Path path, PluginInformation information) {
+        try {
+            return new JavaPluginDescription(information.getId(), information.getName(), information.getVersion(),
+                    information.getAuthors(), information.getDescription(), information.getDependencies(),
+                    information.getUrl(), path, this, information.getClassName());
+        } catch (NullPointerException e) {
+            throw new IllegalArgumentException("Plugin does not contain the correct information", e);
+        }
+    }
+
     @Nonnull
     @Override
     public PluginContainer createPlugin(@Nonnull PluginDescription description) throws Exception {
@@ -102,28 +175,70 @@ public class JavaPluginLoader implements PluginLoader {
         return PATH_MATCHER;
     }
 
-    private Object instantiate(Path path, JavaPluginDescription description, Logger logger) throws MalformedURLException, ClassNotFoundException {
-        JavaPluginClassLoader loader = new JavaPluginClassLoader(new URL[]{path.toUri().toURL()});
+    @Override
+    public void descriptionsLoaded() {
+        if (descriptionCache != null) {
+            descriptionCache.save();
+        }
+    }
+
+    @Override
+    public void unloadPlugin(@Nonnull PluginContainer plugin) throws IOException {
+        Objects.requireNonNull(plugin, "plugin");
+        JavaPluginClassLoader loader = classLoaders.remove(plugin.getId());
+        if (loader != null) {
+            loader.close();
+        }
+    }
+
+    private Object instantiate(Path path, JavaPluginDescription description, Logger logger) throws IOException, ClassNotFoundException {
+        // Plugins can only use classes from their own dependencies
+        List<JavaPluginClassLoader> dependencyLoaders = new ArrayList<>();
+        for (PluginDependency dependency : description.getDependencies()) {
+            JavaPluginClassLoader dependencyLoader = classLoaders.get(dependency.getId());
+            if (dependencyLoader != null) {
+                dependencyLoaders.add(dependencyLoader);
+            }
+        }
+
+        JavaPluginClassLoader loader = new JavaPluginClassLoader(new URL[]{path.toUri().toURL()}, dependencyLoaders);
 
         String className = description.getClassName().replace('/', '.');
         int last = className.lastIndexOf('.');
 
         String packageName = last == -1 ? "" : className.substring(0, last);
 
-        Class<?> clazz = loader.loadClass(className);
-        Injector injector = new InjectorBuilder()
-                .addDefaultHandlers(packageName)
-                .create();
-        injector.register(PluginDescription.class, description);
-        injector.register(Logger.class, logger);
-        injector.register(Path.class, path.getParent().resolve(description.getId()).toAbsolutePath());
-        dependencies.forEach(injector::register);
+        Object instance;
+        try {
+            Class<?> clazz = loader.loadClass(className);
+            Injector injector = new InjectorBuilder()
+                    .addDefaultHandlers(packageName)
+                    .create();
+            injector.register(PluginDescription.class, description);
+            injector.register(Logger.class, logger);
+            injector.register(Path.class, path.getParent().resolve(description.getId()).toAbsolutePath());
+            dependencies.forEach(injector::register);
 
-        return injector.newInstance(clazz);
+            instance = injector.newInstance(clazz);
+        } catch (Exception | LinkageError e) {
+            // Release the jar and its index entries, as the plugin will never be unloaded
+            try {
+                loader.close();
+            } catch (IOException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw e;
+        }
+
+        classLoaders.put(description.getId(), loader);
+        return instance;
     }
 
-    private Optional<PluginInformation> getInformation(JarInputStream jis) throws IOException {
-        ClassReader reader = new ClassReader(jis);
+    private Optional<PluginInformation> getInformation(JarFile jar, JarEntry entry) throws IOException {
+        ClassReader reader;
+        try (InputStream is = jar.getInputStream(entry)) {
+            reader = new ClassReader(is);
+        }
         PluginClassVisitor visitor = new PluginClassVisitor();
 
         reader.accept(visitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
@@ -133,6 +248,7 @@ public class JavaPluginLoader implements PluginLoader {
     @NoArgsConstructor(access = AccessLevel.PRIVATE)
     public static class Builder {
         private final Map<Class, Object> dependencies = new HashMap<>();
+        private Path descriptionCache;
 
         public Builder registerDependency(Class clazz, Object instance) {
             Objects.requireNonNull(clazz, "clazz");
@@ -145,8 +261,17 @@ public class JavaPluginLoader implements PluginLoader {
             return this;
         }
 
+        /**
+         * Caches plugin descriptions in the given file so jars which haven't changed are not read again on the next
+         * start.
+         */
+        public Builder descriptionCache(Path descriptionCache) {
+            this.descriptionCache = Objects.requireNonNull(descriptionCache, "descriptionCache");
+            return this;
+        }
+
         public JavaPluginLoader build() {
-            return new JavaPluginLoader(dependencies);
+            return new JavaPluginLoader(dependencies, descriptionCache);
         }
     }
 }
@@ -1,44 +1,161 @@
 package com.nukkitx.plugin.loader.java;
 
+import com.google.common.cache.CacheBuilder;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 
+/**
+ * Loads a plugin's classes. Classes which are not in the plugin's jar or the parent class loader are looked up in the
+ * class loaders of the plugin's dependencies, in the order the dependencies are declared, and then in the first
+ * loaded plugin containing them.
+ * <p>
+ * Every plugin jar is indexed up front, so a class is only looked up where it can be: classes in no plugin jar only
+ * in the parent, and classes in another plugin's jar directly in that plugin's class loader.
+ */
 public class JavaPluginClassLoader extends URLClassLoader {
-    private static final Set<JavaPluginClassLoader> loaders = new CopyOnWriteArraySet<>();
+    // Loaders of the plugin jars containing each class, in the order they were created
+    private static final ConcurrentMap<String, List<JavaPluginClassLoader>> classIndex = new ConcurrentHashMap<>();
+    // Classes which are in no plugin jar and weren't found by the parent either
+    private static final Set<String> misses = Collections.newSetFromMap(CacheBuilder.newBuilder()
+            .maximumSize(4096)
+            .<String, Boolean>build()
+            .asMap());
 
     static {
         ClassLoader.registerAsParallelCapable();
     }
 
-    public JavaPluginClassLoader(URL[] urls) {
+    private final Set<String> classes = new HashSet<>();
+    private final List<JavaPluginClassLoader> dependencies;
+    // Whether all classes this loader can find are in the index
+    private boolean indexed = true;
+
+    public JavaPluginClassLoader(URL[] urls) throws IOException {
+        this(urls, Collections.emptyList());
+    }
+
+    public JavaPluginClassLoader(URL[] urls, List<JavaPluginClassLoader> dependencies) throws IOException {
         super(urls);
-        loaders.add(this);
+        this.dependencies = new ArrayList<>(dependencies);
+        for (URL url : urls) {
+            index(url);
+        }
+        for (String name : classes) {
+            classIndex.merge(name, Collections.singletonList(this), JavaPluginClassLoader::concat);
+        }
+    }
+
+    private void index(URL url) throws IOException {
+        if (!"file".equals(url.getProtocol())) {
+            indexed = false;
+            return;
+        }
+
+        File file;
+        try {
+            file = new File(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid plugin URL " + url, e);
+        }
+        if (!file.isFile()) {
+            indexed = false;
+            return;
+        }
+
+        try (JarFile jar = new JarFile(file)) {
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.endsWith(".class") && !name.equals("module-info.class")) {
+                    classes.add(name.substring(0, name.length() - 6).replace('/', '.'));
+                }
+            }
+        }
     }
 
     @Override
     protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
-        return loadClass0(name, resolve, true);
-    }
+        List<JavaPluginClassLoader> owners = classIndex.get(name);
+        if (owners == null) {
+            if (!indexed) {
+                return super.loadClass(name, resolve);
+            }
 
-    private Class<?> loadClass0(String name, boolean resolve, boolean checkOther) throws ClassNotFoundException {
-        try {
+            // Not in any plugin jar, so only the parent can have it
+            if (misses.contains(name)) {
+                throw new ClassNotFoundException(name);
+            }
+            try {
+                return loadFromParent(name, resolve);
+            } catch (ClassNotFoundException e) {
+                misses.add(name);
+                throw e;
+            }
+        }
+
+        if (owners.contains(this)) {
             return super.loadClass(name, resolve);
-        } catch (ClassNotFoundException ignored) {
-            // Ignored: we'll try others
-        }
-        if (checkOther) {
-            for (JavaPluginClassLoader loader : loaders) {
-                if (loader != this) {
-                    try {
-                        return loader.loadClass0(name, resolve, false);
-                    } catch (ClassNotFoundException ignored) {
-                        // We're trying others, safe to ignore
-                    }
-                }
+        }
+
+        // Load it the same way the dependency does, so both see the same class
+        for (JavaPluginClassLoader dependency : dependencies) {
+            if (owners.contains(dependency)) {
+                return dependency.loadClass(name, resolve);
             }
         }
-        throw new ClassNotFoundException(name);
+        // Undeclared dependency, so use the plugin which was loaded first
+        return owners.get(0).loadClass(name, resolve);
+    }
+
+    private Class<?> loadFromParent(String name, boolean resolve) throws ClassNotFoundException {
+        Class<?> clazz = getParent().loadClass(name);
+        if (resolve) {
+            resolveClass(clazz);
+        }
+        return clazz;
+    }
+
+    /**
+     * Removes this plugin's classes from the index and closes the jar. Classes which are already loaded keep working,
+     * but no new classes can be loaded.
+     */
+    @Override
+    public void close() throws IOException {
+        for (String name : classes) {
+            classIndex.computeIfPresent(name, (key, owners) -> remove(owners, this));
+        }
+        dependencies.clear();
+        super.close();
+    }
+
+    private static List<JavaPluginClassLoader> concat(List<JavaPluginClassLoader> owners,
+                                                      List<JavaPluginClassLoader> added) {
+        List<JavaPluginClassLoader> merged = new ArrayList<>(owners.size() + added.size());
+        merged.addAll(owners);
+        merged.addAll(added);
+        return Collections.unmodifiableList(merged);
+    }
+
+    @Nullable
+    private static List<JavaPluginClassLoader> remove(List<JavaPluginClassLoader> owners,
+                                                      JavaPluginClassLoader removed) {
+        List<JavaPluginClassLoader> remaining = new ArrayList<>(owners);
+        remaining.remove(removed);
+        return remaining.isEmpty() ? null : Collections.unmodifiableList(remaining);
     }
 }
@@ -1,6 +1,6 @@
 package com.nukkitx.plugin.loader.java;
 
-import com.nukkitx.api.plugin.Dependency;
+import com.nukkitx.plugin.SimplePluginDependency;
 import lombok.Getter;
 import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.Opcodes;
@@ -20,9 +20,6 @@ public class PluginAnnotationVisitor extends AnnotationVisitor {
     @Override
     public void visit(String name, Object value) {
         switch (type) {
-            case DEPENDENCIES:
-                information.getDependencies().add((Dependency) value);
-                break;
             case AUTHORS:
                 information.getAuthors().add((String) value);
                 break;
@@ -62,12 +59,54 @@ public class PluginAnnotationVisitor extends AnnotationVisitor {
         return this;
     }
 
+    @Override
+    public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+        if (type == Type.DEPENDENCIES) {
+            return new DependencyAnnotationVisitor();
+        }
+        return super.visitAnnotation(name, descriptor);
+    }
+
     @Override
     public void visitEnd() {
         type = Type.INFORMATION;
         super.visitEnd();
     }
 
+    /**
+     * Reads a single {@link com.nukkitx.api.plugin.Dependency} of the dependencies array. Defaults are not written to
+     * the class file, so they have to be filled in here.
+     */
+    private class DependencyAnnotationVisitor extends AnnotationVisitor {
+        private String id;
+        private String version = "";
+        private boolean optional;
+
+        private DependencyAnnotationVisitor() {
+            super(Opcodes.ASM5);
+        }
+
+        @Override
+        public void visit(String name, Object value) {
+            switch (name) {
+                case "id":
+                    id = (String) value;
+                    break;
+                case "version":
+                    version = (String) value;
+                    break;
+                case "optional":
+                    optional = (Boolean) value;
+                    break;
+            }
+        }
+
+        @Override
+        public void visitEnd() {
+            information.getDependencies().add(new SimplePluginDependency(id, version, optional));
+        }
+    }
+
     private enum Type {
         INFORMATION,
         DEPENDENCIES,
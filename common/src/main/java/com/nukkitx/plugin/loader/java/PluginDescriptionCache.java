@@ -0,0 +1,201 @@
+package com.nukkitx.plugin.loader.java;
+
+import com.nukkitx.api.plugin.PluginDependency;
+import com.nukkitx.api.plugin.PluginLoader;
+import com.nukkitx.plugin.SimplePluginDependency;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Remembers the descriptions of plugin jars between restarts so unchanged jars don't have to be opened again.
+ * <p>
+ * Entries are keyed by the jar's absolute path and are only used while its size and modification time are unchanged.
+ * Changes are kept in memory until {@link #save()} writes them to a small binary file, replacing the old file
+ * atomically so a crash never leaves a partially written cache behind.
+ */
+@Log4j2
+public class PluginDescriptionCache {
+    private static final int MAGIC = 0x4e58504c; // NXPL
+    private static final int VERSION = 1;
+
+    private final Path file;
+    private final PluginLoader loader;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public PluginDescriptionCache(Path file, PluginLoader loader) {
+        this.file = file.toAbsolutePath();
+        this.loader = loader;
+        if (Files.isRegularFile(this.file)) {
+            try {
+                read();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Unable to read plugin description cache {}, it will be rebuilt", this.file, e);
+                entries.clear();
+            }
+        }
+    }
+
+    /**
+     * Gets the cached description of a jar.
+     *
+     * @param path       the jar
+     * @param attributes the jar's current attributes
+     * @return the description, or {@code null} if the jar is not cached or has changed
+     */
+    @Nullable
+    public JavaPluginDescription get(Path path, BasicFileAttributes attributes) {
+        Entry entry = entries.get(key(path));
+        if (entry == null || entry.getSize() != attributes.size() ||
+                entry.getLastModified() != attributes.lastModifiedTime().toMillis()) {
+            return null;
+        }
+        return entry.getDescription();
+    }
+
+    /**
+     * Caches the description of a jar. The cache is written on the next {@link #save()}.
+     *
+     * @param path        the jar
+     * @param attributes  the jar's attributes from before it was read
+     * @param description the jar's description
+     */
+    public void put(Path path, BasicFileAttributes attributes, JavaPluginDescription description) {
+        entries.put(key(path), new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(), description));
+        dirty.set(true);
+    }
+
+    /**
+     * Writes the cache if it has changed. Entries for jars which no longer exist are dropped.
+     */
+    public synchronized void save() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+
+        entries.keySet().removeIf(key -> !Files.exists(Paths.get(key)));
+        try {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                write(out);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("Unable to write plugin description cache {}", file, e);
+        }
+    }
+
+    private void read() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unknown cache format");
+            }
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                long size = in.readLong();
+                long lastModified = in.readLong();
+
+                String id = in.readUTF();
+                String name = in.readUTF();
+                String version = in.readUTF();
+                String description = readNullable(in);
+                String url = readNullable(in);
+                String className = in.readUTF();
+
+                int authorCount = in.readInt();
+                List<String> authors = new ArrayList<>(authorCount);
+                for (int j = 0; j < authorCount; j++) {
+                    authors.add(in.readUTF());
+                }
+
+                int dependencyCount = in.readInt();
+                List<PluginDependency> dependencies = new ArrayList<>(dependencyCount);
+                for (int j = 0; j < dependencyCount; j++) {
+                    dependencies.add(new SimplePluginDependency(in.readUTF(), in.readUTF(), in.readBoolean()));
+                }
+
+                entries.put(key, new Entry(size, lastModified, new JavaPluginDescription(id, name, version, authors,
+                        description, dependencies, url, Paths.get(key), loader, className)));
+            }
+        }
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        // Copy first as the entries may change while writing
+        List<Map.Entry<String, Entry>> snapshot = new ArrayList<>(entries.entrySet());
+        out.writeInt(snapshot.size());
+        for (Map.Entry<String, Entry> mapEntry : snapshot) {
+            Entry entry = mapEntry.getValue();
+            JavaPluginDescription description = entry.getDescription();
+
+            out.writeUTF(mapEntry.getKey());
+            out.writeLong(entry.getSize());
+            out.writeLong(entry.getLastModified());
+
+            out.writeUTF(description.getId());
+            out.writeUTF(description.getName());
+            out.writeUTF(description.getVersion());
+            writeNullable(out, description.getDescription().orElse(null));
+            writeNullable(out, description.getUrl().orElse(null));
+            out.writeUTF(description.getClassName());
+
+            Collection<String> authors = description.getAuthors();
+            out.writeInt(authors.size());
+            for (String author : authors) {
+                out.writeUTF(author);
+            }
+
+            Collection<PluginDependency> dependencies = description.getDependencies();
+            out.writeInt(dependencies.size());
+            for (PluginDependency dependency : dependencies) {
+                out.writeUTF(dependency.getId());
+                out.writeUTF(dependency.getVersion());
+                out.writeBoolean(dependency.isOptional());
+            }
+        }
+    }
+
+    private static String key(Path path) {
+        return path.toAbsolutePath().normalize().toString();
+    }
+
+    @Nullable
+    private static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullable(DataOutput out, @Nullable String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    @Value
+    private static class Entry {
+        private final long size;
+        private final long lastModified;
+        private final JavaPluginDescription description;
+    }
+}
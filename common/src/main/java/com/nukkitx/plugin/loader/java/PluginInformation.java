@@ -1,6 +1,6 @@
 package com.nukkitx.plugin.loader.java;
 
-import com.nukkitx.api.plugin.Dependency;
+import com.nukkitx.api.plugin.PluginDependency;
 import lombok.Data;
 
 import java.util.ArrayList;
@@ -10,7 +10,7 @@ import java.util.List;
 public class PluginInformation {
     private final String className;
     private final List<String> authors = new ArrayList<>();
-    private final List<Dependency> dependencies = new ArrayList<>();
+    private final List<PluginDependency> dependencies = new ArrayList<>();
     private String id;
     private String name;
     private String version;
@@ -0,0 +1,163 @@
+package com.nukkitx.plugin.util;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+/**
+ * Manages a dynamic class data sharing archive of the classes loaded by the server and its plugins, so later starts
+ * can map already parsed and verified classes instead of loading them from the jars.
+ * <p>
+ * The archive can only be chosen when the JVM starts, so this is meant to be run by the launcher first:
+ * <pre>
+ * java $(java -cp server.jar com.nukkitx.plugin.util.CdsArchive cds/server.jsa server.jar plugins) -jar server.jar
+ * </pre>
+ * The first start records the loaded classes and writes the archive on exit. Later starts use the archive until the
+ * hash of any jar or the JVM changes, after which the archive is recorded again. Jars are only hashed again when their
+ * size or modification time changes. Dynamic archives need Java 13 or newer; on older JVMs no options are returned.
+ */
+public class CdsArchive {
+    private final Path archive;
+    private final Path fingerprintFile;
+    private final Path hashesFile;
+
+    public CdsArchive(Path archive) {
+        this.archive = archive.toAbsolutePath();
+        this.fingerprintFile = this.archive.resolveSibling(this.archive.getFileName() + ".sha256");
+        this.hashesFile = this.archive.resolveSibling(this.archive.getFileName() + ".jars");
+    }
+
+    /**
+     * Gets the JVM options to start with. If the archive matches the jars it is used, otherwise the archive is
+     * deleted and the options record a new one.
+     *
+     * @param jars the jars on the class path and the plugin jars, or directories containing them
+     * @return the JVM options
+     * @throws IOException if the jars could not be read
+     */
+    public List<String> getJvmOptions(Collection<Path> jars) throws IOException {
+        if (!isSupported()) {
+            return Collections.emptyList();
+        }
+
+        Files.createDirectories(archive.getParent());
+        String fingerprint = fingerprint(jars);
+        if (Files.isRegularFile(archive) && Files.isRegularFile(fingerprintFile) &&
+                fingerprint.equals(new String(Files.readAllBytes(fingerprintFile), StandardCharsets.UTF_8))) {
+            return Collections.singletonList("-XX:SharedArchiveFile=" + archive);
+        }
+
+        // Stale or missing, so record it again on this run
+        Files.deleteIfExists(archive);
+        Files.write(fingerprintFile, fingerprint.getBytes(StandardCharsets.UTF_8));
+        return Collections.singletonList("-XX:ArchiveClassesAtExit=" + archive);
+    }
+
+    /**
+     * Hashes the contents of the jars along with the JVM version, which archives are specific to. The hash of each jar
+     * is kept along with its size and modification time, so unchanged jars don't have to be read.
+     */
+    private String fingerprint(Collection<Path> paths) throws IOException {
+        SortedSet<Path> jars = new TreeSet<>();
+        for (Path path : paths) {
+            path = path.toAbsolutePath().normalize();
+            if (Files.isDirectory(path)) {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(path, "*.jar")) {
+                    for (Path jar : stream) {
+                        jars.add(jar);
+                    }
+                }
+            } else if (Files.isRegularFile(path)) {
+                jars.add(path);
+            }
+        }
+
+        // Each line is the size, modification time, hash and path of a jar
+        Map<String, String> known = new HashMap<>();
+        if (Files.isRegularFile(hashesFile)) {
+            for (String line : Files.readAllLines(hashesFile, StandardCharsets.UTF_8)) {
+                String[] parts = line.split(" ", 4);
+                if (parts.length == 4) {
+                    known.put(parts[3], line);
+                }
+            }
+        }
+
+        Hasher hasher = Hashing.sha256().newHasher()
+                .putString(System.getProperty("java.vm.version", ""), StandardCharsets.UTF_8);
+        List<String> lines = new ArrayList<>(jars.size());
+        boolean changed = known.size() != jars.size();
+        for (Path jar : jars) {
+            BasicFileAttributes attributes = Files.readAttributes(jar, BasicFileAttributes.class);
+            String stamp = attributes.size() + " " + attributes.lastModifiedTime().toMillis() + " ";
+            String line = known.get(jar.toString());
+            String hash;
+            if (line != null && line.startsWith(stamp)) {
+                hash = line.substring(stamp.length(), line.indexOf(' ', stamp.length()));
+            } else {
+                hash = com.google.common.io.Files.asByteSource(jar.toFile()).hash(Hashing.sha256()).toString();
+                line = stamp + hash + " " + jar;
+                changed = true;
+            }
+            lines.add(line);
+            hasher.putString(jar.toString(), StandardCharsets.UTF_8)
+                    .putString(hash, StandardCharsets.UTF_8);
+        }
+
+        if (changed) {
+            Files.write(hashesFile, lines, StandardCharsets.UTF_8);
+        }
+        return hasher.hash().toString();
+    }
+
+    /**
+     * Checks whether the running JVM can write dynamic archives.
+     */
+    public static boolean isSupported() {
+        String version = System.getProperty("java.specification.version", "");
+        if (version.startsWith("1.")) {
+            return false;
+        }
+        try {
+            return Integer.parseInt(version) >= 13;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Prints the JVM options to start with on a single line.
+     * <p>
+     * Arguments are the archive followed by the jars and plugin directories. If only the archive is given, the class
+     * path of this JVM is used.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: CdsArchive <archive> [jars or directories...]");
+            System.exit(1);
+            return;
+        }
+
+        List<Path> jars = new ArrayList<>();
+        if (args.length == 1) {
+            for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+                jars.add(Paths.get(entry));
+            }
+        } else {
+            for (int i = 1; i < args.length; i++) {
+                jars.add(Paths.get(args[i]));
+            }
+        }
+
+        System.out.println(String.join(" ", new CdsArchive(Paths.get(args[0])).getJvmOptions(jars)));
+    }
+}
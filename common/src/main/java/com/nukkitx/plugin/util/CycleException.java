@@ -1,12 +1,32 @@
 package com.nukkitx.plugin.util;
 
+import java.util.Collections;
+import java.util.List;
+
 public class CycleException extends GraphException {
+    private final List<?> cycle;
 
     public CycleException() {
         super();
+        this.cycle = Collections.emptyList();
     }
 
     public CycleException(String msg) {
         super(msg);
+        this.cycle = Collections.emptyList();
+    }
+
+    public CycleException(String msg, List<?> cycle) {
+        super(msg);
+        this.cycle = Collections.unmodifiableList(cycle);
+    }
+
+    /**
+     * Gets the nodes forming the cycle, starting and ending with the same node.
+     *
+     * @return an unmodifiable {@link List}, empty if the cycle is unknown
+     */
+    public List<?> getCycle() {
+        return cycle;
     }
 }
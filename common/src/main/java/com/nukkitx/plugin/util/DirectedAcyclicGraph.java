@@ -1,44 +1,85 @@
 package com.nukkitx.plugin.util;
 
-import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.ToString;
-import lombok.Value;
 
 import java.util.*;
 
+/**
+ * A directed graph which can be sorted so that every node comes after the nodes it has edges to.
+ * <p>
+ * Nodes are indexed by their data and keep both their outgoing and incoming edges, so sorting is linear in the number
+ * of nodes and edges. Sorting does not modify the graph.
+ */
 @ToString
-@EqualsAndHashCode
 public class DirectedAcyclicGraph<T> {
-    private final Deque<Node<T>> nodes = new ArrayDeque<>();
+    private final Map<T, Node<T>> nodes = new LinkedHashMap<>();
 
     public Collection<T> sort() throws GraphException {
-        // Now find nodes that have no edges.
-        Queue<DirectedAcyclicGraph.Node<T>> noEdges = getNodesWithNoEdges();
+        // Number of edges of each node which haven't been sorted yet
+        Map<Node<T>, Integer> remaining = new HashMap<>(nodes.size() * 2);
+        Queue<Node<T>> noEdges = new ArrayDeque<>();
+        for (Node<T> node : nodes.values()) {
+            if (node.adjacent.isEmpty()) {
+                noEdges.add(node);
+            } else {
+                remaining.put(node, node.adjacent.size());
+            }
+        }
 
         // Run Kahn's algorithm.
-        Collection<T> sorted = new ArrayDeque<>();
+        List<T> sorted = new ArrayList<>(nodes.size());
         while (!noEdges.isEmpty()) {
-            DirectedAcyclicGraph.Node<T> itemNode = noEdges.poll();
-            T item = itemNode.getData();
-            sorted.add(item);
-
-            for (DirectedAcyclicGraph.Node<T> node : withEdge(item)) {
-                node.removeEdge(itemNode);
-                if (node.getAdjacent().isEmpty()) {
-                    if (!noEdges.contains(node)) {
-                        noEdges.add(node);
-                    }
+            Node<T> itemNode = noEdges.poll();
+            sorted.add(itemNode.getData());
+
+            for (Node<T> node : itemNode.incoming) {
+                if (remaining.merge(node, -1, Integer::sum) == 0) {
+                    remaining.remove(node);
+                    noEdges.add(node);
                 }
             }
         }
 
-        if (hasEdges()) {
-            throw new CycleException("Cycle found: " + toString());
+        if (!remaining.isEmpty()) {
+            List<T> cycle = findCycle(remaining.keySet());
+            StringJoiner path = new StringJoiner(" -> ", "Cycle found: ", "");
+            for (T item : cycle) {
+                path.add(String.valueOf(item));
+            }
+            throw new CycleException(path.toString(), cycle);
         }
 
         return sorted;
     }
 
+    /**
+     * Follows edges between unsorted nodes until a node is visited twice. Every unsorted node has an edge to another
+     * unsorted node, so this always ends in a cycle.
+     */
+    private List<T> findCycle(Set<Node<T>> unsorted) {
+        Map<Node<T>, Integer> visited = new HashMap<>();
+        List<Node<T>> path = new ArrayList<>();
+        Node<T> node = unsorted.iterator().next();
+        while (!visited.containsKey(node)) {
+            visited.put(node, path.size());
+            path.add(node);
+            for (Node<T> next : node.adjacent) {
+                if (unsorted.contains(next)) {
+                    node = next;
+                    break;
+                }
+            }
+        }
+
+        List<T> cycle = new ArrayList<>();
+        for (Node<T> cycleNode : path.subList(visited.get(node), path.size())) {
+            cycle.add(cycleNode.getData());
+        }
+        cycle.add(node.getData());
+        return cycle;
+    }
+
     public void addEdges(T one, T two) {
         Node<T> nodeOne = add(one);
         Node<T> nodeTwo = add(two);
@@ -46,49 +87,34 @@ public class DirectedAcyclicGraph<T> {
     }
 
     public Node<T> add(T t) {
-        Optional<Node<T>> willAdd = get(t);
-        if (!willAdd.isPresent()) {
-            Node<T> node = new Node<>(t);
-            nodes.add(node);
-            return node;
-        } else {
-            return willAdd.get();
-        }
+        return nodes.computeIfAbsent(t, Node::new);
     }
 
     public Optional<Node<T>> get(T t) {
-        for (Node<T> node : nodes) {
-            if (node.data.equals(t)) {
-                return Optional.of(node);
-            }
-        }
-        return Optional.empty();
+        return Optional.ofNullable(nodes.get(t));
     }
 
     public void remove(Node<T> node) {
-        for (Node<T> tNode : nodes) {
-            tNode.removeEdge(node);
+        if (nodes.remove(node.getData(), node)) {
+            for (Node<T> in : new ArrayList<>(node.incoming)) {
+                in.removeEdge(node);
+            }
+            for (Node<T> out : new ArrayList<>(node.adjacent)) {
+                node.removeEdge(out);
+            }
         }
-        nodes.remove(node);
     }
 
     public Collection<Node<T>> withEdge(T t) {
-        Optional<Node<T>> inOptional = get(t);
-        if (!inOptional.isPresent()) {
+        Node<T> in = nodes.get(t);
+        if (in == null) {
             return Collections.emptyList();
         }
-        Node<T> in = inOptional.get();
-        List<Node<T>> queue = new ArrayList<>();
-        for (Node<T> node : nodes) {
-            if (node.isAdjacent(in)) {
-                queue.add(node);
-            }
-        }
-        return queue;
+        return new ArrayList<>(in.incoming);
     }
 
     public boolean hasEdges() {
-        for (Node<T> node : nodes) {
+        for (Node<T> node : nodes.values()) {
             if (!node.adjacent.isEmpty()) {
                 return true;
             }
@@ -98,27 +124,42 @@ public class DirectedAcyclicGraph<T> {
 
     public Deque<Node<T>> getNodesWithNoEdges() {
         Deque<Node<T>> found = new ArrayDeque<>();
-        for (Node<T> node : nodes) {
-            if (node.getAdjacent().isEmpty()) {
+        for (Node<T> node : nodes.values()) {
+            if (node.adjacent.isEmpty()) {
                 found.add(node);
             }
         }
         return found;
     }
 
-    @Value
+    @ToString(of = "data")
     public static class Node<T> {
+        @Getter
         private final T data;
-        private final Deque<Node<T>> adjacent = new ArrayDeque<>();
+        private final Set<Node<T>> adjacent = new LinkedHashSet<>();
+        // Reverse edges, so the nodes with an edge to this one don't have to be searched for
+        private final Set<Node<T>> incoming = new LinkedHashSet<>();
+
+        private Node(T data) {
+            this.data = data;
+        }
+
+        public Collection<Node<T>> getAdjacent() {
+            return Collections.unmodifiableSet(adjacent);
+        }
 
         public void addEdge(Node<T> edge) {
-            if (!isAdjacent(edge)) {
-                adjacent.add(edge);
+            if (adjacent.add(edge)) {
+                edge.incoming.add(this);
             }
         }
 
         public boolean removeEdge(Node<T> edge) {
-            return adjacent.remove(edge);
+            if (adjacent.remove(edge)) {
+                edge.incoming.remove(this);
+                return true;
+            }
+            return false;
         }
 
         public boolean isAdjacent(Node<T> edge) {
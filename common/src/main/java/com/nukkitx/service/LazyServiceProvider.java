@@ -0,0 +1,73 @@
+package com.nukkitx.service;
+
+import com.nukkitx.api.service.ServicePriority;
+import com.nukkitx.api.service.ServiceProvider;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A provider which is only created the first time {@link #getProvider()} is called. The supplier is called at most
+ * once unless it throws, in which case the next call tries again.
+ */
+@Getter
+public class LazyServiceProvider<T> implements ServiceProvider<T> {
+    private final Object plugin;
+    private final ServicePriority priority;
+    private final Class<T> service;
+    @Getter(AccessLevel.NONE)
+    private Supplier<? extends T> supplier;
+    @Getter(AccessLevel.NONE)
+    private volatile T provider;
+
+    public LazyServiceProvider(Object plugin, ServicePriority priority, Class<T> service, Supplier<? extends T> supplier) {
+        this.plugin = plugin;
+        this.priority = priority;
+        this.service = service;
+        this.supplier = supplier;
+    }
+
+    @Override
+    public T getProvider() {
+        T provider = this.provider;
+        if (provider == null) {
+            synchronized (this) {
+                provider = this.provider;
+                if (provider == null) {
+                    provider = Objects.requireNonNull(supplier.get(), "Supplier for " + service + " returned null");
+                    this.provider = provider;
+                    this.supplier = null;
+                }
+            }
+        }
+        return provider;
+    }
+
+    /**
+     * Gets the provider without creating it.
+     *
+     * @return the provider, or {@code null} if it has not been created yet
+     */
+    @Nullable
+    public T getProviderIfMaterialized() {
+        return provider;
+    }
+
+    public boolean isMaterialized() {
+        return provider != null;
+    }
+
+    @Override
+    public int compareTo(ServiceProvider<T> that) {
+        return that.getPriority().ordinal() - this.priority.ordinal();
+    }
+
+    @Override
+    public String toString() {
+        return "LazyServiceProvider(plugin=" + plugin + ", priority=" + priority + ", service=" + service +
+                ", materialized=" + isMaterialized() + ")";
+    }
+}
@@ -0,0 +1,129 @@
+package com.nukkitx.service;
+
+import com.nukkitx.api.service.ServiceHandle;
+import com.nukkitx.api.service.ServiceProvider;
+import lombok.Value;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Holds the providers of a single service, sorted by priority. The highest priority provider is cached in a volatile
+ * field which is updated whenever the providers change, so reading it never allocates.
+ */
+public class SimpleServiceHandle<T> implements ServiceHandle<T> {
+    private final Class<T> service;
+    private final List<ServiceProvider<T>> providers = new CopyOnWriteArrayList<>();
+    private final List<Watcher<T>> watchers = new CopyOnWriteArrayList<>();
+    private volatile ServiceProvider<T> provider;
+
+    public SimpleServiceHandle(Class<T> service) {
+        this.service = Objects.requireNonNull(service, "service");
+    }
+
+    @Nonnull
+    @Override
+    public Class<T> getService() {
+        return service;
+    }
+
+    @Nullable
+    @Override
+    public ServiceProvider<T> getProvider() {
+        return provider;
+    }
+
+    /**
+     * Gets all providers of this service in priority order.
+     *
+     * @return an unmodifiable {@link List}
+     */
+    public List<ServiceProvider<T>> getProviders() {
+        return Collections.unmodifiableList(providers);
+    }
+
+    List<Watcher<T>> getWatchers() {
+        return watchers;
+    }
+
+    void addWatcher(@Nullable Object plugin, Consumer<? super ServiceProvider<T>> watcher) {
+        watchers.add(new Watcher<>(plugin, watcher));
+    }
+
+    @Nullable
+    Watcher<T> removeWatcher(Consumer<? super ServiceProvider<T>> watcher) {
+        for (Watcher<T> registered : watchers) {
+            if (registered.getWatcher().equals(watcher) && watchers.remove(registered)) {
+                return registered;
+            }
+        }
+        return null;
+    }
+
+    boolean hasWatchers(Object plugin) {
+        for (Watcher<T> registered : watchers) {
+            if (registered.getPlugin() == plugin) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void removeWatchers(Object plugin) {
+        watchers.removeIf(registered -> registered.getPlugin() == plugin);
+    }
+
+    synchronized boolean add(ServiceProvider<T> registered) {
+        int position = Collections.binarySearch(providers, registered);
+
+        if (position > -1) return false;
+
+        providers.add(-(position + 1), registered);
+        update();
+        return true;
+    }
+
+    boolean hasProvider(Object plugin) {
+        for (ServiceProvider<T> provider : providers) {
+            if (provider.getPlugin() == plugin) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all matching providers with a single copy of the provider list.
+     */
+    synchronized boolean removeIf(Predicate<ServiceProvider<T>> filter, List<? super ServiceProvider<T>> removed) {
+        boolean changed = false;
+        for (ServiceProvider<T> provider : providers) {
+            if (filter.test(provider)) {
+                removed.add(provider);
+                changed = true;
+            }
+        }
+        if (changed) {
+            providers.removeIf(filter);
+            update();
+        }
+        return changed;
+    }
+
+    private void update() {
+        this.provider = providers.isEmpty() ? null : providers.get(0);
+    }
+
+    @Value
+    static class Watcher<T> {
+        // Null if the watcher was added without a plugin, in which case it is only removed by unwatch
+        private final Object plugin;
+        private final Consumer<? super ServiceProvider<T>> watcher;
+    }
+}
@@ -1,20 +1,52 @@
 package com.nukkitx.service;
 
+import com.nukkitx.api.event.Event;
+import com.nukkitx.api.event.EventManager;
+import com.nukkitx.api.service.ServiceHandle;
 import com.nukkitx.api.service.ServiceManager;
 import com.nukkitx.api.service.ServicePriority;
 import com.nukkitx.api.service.ServiceProvider;
+import com.nukkitx.api.service.event.ServiceCancelEvent;
+import com.nukkitx.api.service.event.ServiceRegisterEvent;
+import lombok.extern.log4j.Log4j2;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
+@Log4j2
 public class SimpleServiceManager implements ServiceManager {
-    private final ConcurrentMap<Class<?>, List<ServiceProvider<?>>> serviceProviders = new ConcurrentHashMap<>();
-    private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+    private final ConcurrentMap<Class<?>, SimpleServiceHandle<?>> serviceProviders = new ConcurrentHashMap<>();
+    // Services each plugin has registered providers for, so cancelling a plugin only visits its own services.
+    private final Map<Object, Set<SimpleServiceHandle<?>>> servicesByPlugin = new IdentityHashMap<>();
+    // Services each plugin watches, so its watchers can be removed when it is cancelled.
+    private final Map<Object, Set<SimpleServiceHandle<?>>> watchedByPlugin = new IdentityHashMap<>();
+    // Changes are queued while holding the lock and delivered in order by one thread at a time after releasing it, so
+    // watchers and listeners can change services themselves without deadlocking.
+    private final Queue<Runnable> notifications = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean notifying = new AtomicBoolean();
+    private final EventManager eventManager;
+
+    public SimpleServiceManager() {
+        this(null);
+    }
+
+    /**
+     * Creates a service manager which fires {@link ServiceRegisterEvent} and {@link ServiceCancelEvent} through the
+     * given event manager.
+     *
+     * @param eventManager the event manager, or {@code null} to not fire events
+     */
+    public SimpleServiceManager(@Nullable EventManager eventManager) {
+        this.eventManager = eventManager;
+    }
 
     @Override
     public <T> boolean register(@Nonnull Class<T> service, @Nonnull T provider, @Nonnull Object plugin, @Nonnull ServicePriority priority) {
@@ -26,17 +58,35 @@ public class SimpleServiceManager implements ServiceManager {
         return provide(service, provider, plugin, priority);
     }
 
-    protected <T> boolean provide(Class<T> service, T provider, Object plugin, ServicePriority priority) {
-        List<ServiceProvider<?>> list = serviceProviders.computeIfAbsent(service, k -> new CopyOnWriteArrayList<>());
-
-        SimpleServiceProvider<T> registered = new SimpleServiceProvider<>(plugin, priority, service, provider);
+    @Override
+    public <T> boolean registerLazy(@Nonnull Class<T> service, @Nonnull Supplier<? extends T> provider, @Nonnull Object plugin, @Nonnull ServicePriority priority) {
+        Objects.requireNonNull(service, "service");
+        Objects.requireNonNull(provider, "provider");
+        Objects.requireNonNull(plugin, "plugin");
+        Objects.requireNonNull(priority, "priority");
 
-        int position = Collections.binarySearch(list, registered);
+        return provide(getHandle0(service), new LazyServiceProvider<>(plugin, priority, service, provider));
+    }
 
-        if (position > -1) return false;
+    protected <T> boolean provide(Class<T> service, T provider, Object plugin, ServicePriority priority) {
+        return provide(getHandle0(service), new SimpleServiceProvider<>(plugin, priority, service, provider));
+    }
 
-        list.add(-(position + 1), registered);
+    private <T> boolean provide(SimpleServiceHandle<T> handle, ServiceProvider<T> registered) {
+        Object plugin = registered.getPlugin();
+        synchronized (servicesByPlugin) {
+            ServiceProvider<T> previous = handle.getProvider();
+            if (!handle.add(registered)) {
+                return false;
+            }
+            servicesByPlugin.computeIfAbsent(plugin, k -> new HashSet<>()).add(handle);
 
+            ServiceProvider<T> current = handle.getProvider();
+            if (current != previous) {
+                queueChanged(handle, new ServiceRegisterEvent<>(current, previous));
+            }
+        }
+        deliverNotifications();
         return true;
     }
 
@@ -46,24 +96,40 @@ public class SimpleServiceManager implements ServiceManager {
         Objects.requireNonNull(plugin, "plugin");
 
         List<ServiceProvider<?>> cancelled = new ArrayList<>();
+        synchronized (servicesByPlugin) {
+            Set<SimpleServiceHandle<?>> provided = servicesByPlugin.remove(plugin);
+            Set<SimpleServiceHandle<?>> watched = watchedByPlugin.remove(plugin);
+            if (provided == null && watched == null) {
+                return Collections.emptyList();
+            }
 
-        Iterator<ServiceProvider<?>> iterator;
-        ServiceProvider<?> provider;
-
-        for (List<ServiceProvider<?>> providers : serviceProviders.values()) {
-            iterator = providers.iterator();
+            Set<SimpleServiceHandle<?>> handles = new HashSet<>();
+            if (watched != null) {
+                // Removed first so the plugin isn't told about its own providers being cancelled
+                for (SimpleServiceHandle<?> handle : watched) {
+                    handle.removeWatchers(plugin);
+                }
+                handles.addAll(watched);
+            }
+            if (provided != null) {
+                handles.addAll(provided);
+            }
 
-            while (iterator.hasNext()) {
-                provider = iterator.next();
+            // Services declared by a plugin with its own class loader can't be used once it is gone
+            ClassLoader pluginLoader = plugin.getClass().getClassLoader();
+            boolean ownLoader = pluginLoader != null && pluginLoader != SimpleServiceManager.class.getClassLoader();
+            for (SimpleServiceHandle<?> handle : handles) {
+                removeProviders(handle, provider -> provider.getPlugin() == plugin, cancelled);
 
-                if (provider.getPlugin() == plugin) {
-                    iterator.remove();
-                    cancelled.add(provider);
+                if (ownLoader && handle.getProvider() == null && handle.getWatchers().isEmpty() &&
+                        handle.getService().getClassLoader() == pluginLoader) {
+                    serviceProviders.remove(handle.getService(), handle);
                 }
             }
         }
+        deliverNotifications();
 
-        return cancelled;
+        return Collections.unmodifiableList(cancelled);
     }
 
     @Nonnull
@@ -72,41 +138,199 @@ public class SimpleServiceManager implements ServiceManager {
         Objects.requireNonNull(service, "service");
         Objects.requireNonNull(provider, "provider");
 
-        ServiceProvider<T> cancelled = null;
+        List<ServiceProvider<T>> cancelled = new ArrayList<>(1);
 
-        List<ServiceProvider<?>> providers = serviceProviders.get(service);
-        if (providers != null) {
-            Iterator<ServiceProvider<?>> iterator = providers.iterator();
-            ServiceProvider<?> next;
+        SimpleServiceHandle<T> handle = getExistingHandle(service);
+        if (handle == null) {
+            return Optional.empty();
+        }
+
+        synchronized (servicesByPlugin) {
+            if (!removeProviders(handle, next -> peekProvider(next) == provider, cancelled)) {
+                return Optional.empty();
+            }
 
-            while (iterator.hasNext() && cancelled == null) {
-                next = iterator.next();
-                if (next.getProvider() == provider) {
-                    iterator.remove();
-                    cancelled = (ServiceProvider<T>) next;
+            Object plugin = cancelled.get(0).getPlugin();
+            Set<SimpleServiceHandle<?>> handles = servicesByPlugin.get(plugin);
+            if (handles != null && !handle.hasProvider(plugin)) {
+                handles.remove(handle);
+                if (handles.isEmpty()) {
+                    servicesByPlugin.remove(plugin);
                 }
             }
         }
+        deliverNotifications();
+
+        return Optional.of(cancelled.get(0));
+    }
+
+    private <T> boolean removeProviders(SimpleServiceHandle<T> handle, Predicate<ServiceProvider<T>> filter,
+                                        List<? super ServiceProvider<T>> cancelled) {
+        ServiceProvider<T> previous = handle.getProvider();
+        if (!handle.removeIf(filter, cancelled)) {
+            return false;
+        }
+
+        ServiceProvider<T> current = handle.getProvider();
+        if (current != previous) {
+            queueChanged(handle, new ServiceCancelEvent<>(previous, current));
+        }
+        return true;
+    }
+
+    /**
+     * Gets the provider's instance without creating lazy providers.
+     */
+    private static Object peekProvider(ServiceProvider<?> provider) {
+        if (provider instanceof LazyServiceProvider) {
+            return ((LazyServiceProvider<?>) provider).getProviderIfMaterialized();
+        }
+        return provider.getProvider();
+    }
 
-        return Optional.ofNullable(cancelled);
+    /**
+     * Queues the notification of a change. Must be called while holding the lock, so changes are queued in the order
+     * they were made.
+     */
+    private <T> void queueChanged(SimpleServiceHandle<T> handle, Event event) {
+        ServiceProvider<T> current = handle.getProvider();
+        notifications.add(() -> notifyChanged(handle, current, event));
+    }
+
+    /**
+     * Delivers the queued notifications unless another thread is already delivering them, in which case that thread
+     * also delivers the ones queued by this thread.
+     */
+    private void deliverNotifications() {
+        while (!notifications.isEmpty() && notifying.compareAndSet(false, true)) {
+            try {
+                Runnable notification;
+                while ((notification = notifications.poll()) != null) {
+                    notification.run();
+                }
+            } finally {
+                notifying.set(false);
+            }
+        }
+    }
+
+    private <T> void notifyChanged(SimpleServiceHandle<T> handle, @Nullable ServiceProvider<T> current, Event event) {
+        for (SimpleServiceHandle.Watcher<T> watcher : handle.getWatchers()) {
+            try {
+                watcher.getWatcher().accept(current);
+            } catch (Exception e) {
+                log.error("Exception occurred while notifying watcher of " + handle.getService(), e);
+            }
+        }
+
+        if (eventManager != null) {
+            try {
+                eventManager.fire(event);
+            } catch (Exception e) {
+                log.error("Exception occurred while firing " + event.getEventName(), e);
+            }
+        }
     }
 
     @Nonnull
     @Override
     public <T> Optional<ServiceProvider<T>> getProvider(@Nonnull Class<T> service) {
-        List<ServiceProvider<?>> providers = serviceProviders.get(service);
-        if (providers == null || providers.isEmpty()) return Optional.empty();
-        return Optional.of((ServiceProvider<T>) providers.get(0));
+        SimpleServiceHandle<T> handle = getExistingHandle(service);
+        if (handle == null) return Optional.empty();
+        return handle.getOptionalProvider();
+    }
+
+    @Nonnull
+    @Override
+    public <T> ServiceHandle<T> getHandle(@Nonnull Class<T> service) {
+        Objects.requireNonNull(service, "service");
+        return getHandle0(service);
+    }
+
+    @Override
+    public <T> void watch(@Nonnull Class<T> service, @Nonnull Consumer<? super ServiceProvider<T>> watcher) {
+        Objects.requireNonNull(service, "service");
+        Objects.requireNonNull(watcher, "watcher");
+        getHandle0(service).addWatcher(null, watcher);
+    }
+
+    @Override
+    public <T> void watch(@Nonnull Object plugin, @Nonnull Class<T> service, @Nonnull Consumer<? super ServiceProvider<T>> watcher) {
+        Objects.requireNonNull(plugin, "plugin");
+        Objects.requireNonNull(service, "service");
+        Objects.requireNonNull(watcher, "watcher");
+
+        SimpleServiceHandle<T> handle = getHandle0(service);
+        synchronized (servicesByPlugin) {
+            handle.addWatcher(plugin, watcher);
+            watchedByPlugin.computeIfAbsent(plugin, k -> new HashSet<>()).add(handle);
+        }
+    }
+
+    @Override
+    public <T> boolean unwatch(@Nonnull Class<T> service, @Nonnull Consumer<? super ServiceProvider<T>> watcher) {
+        Objects.requireNonNull(service, "service");
+        Objects.requireNonNull(watcher, "watcher");
+        SimpleServiceHandle<T> handle = getExistingHandle(service);
+        if (handle == null) {
+            return false;
+        }
+
+        synchronized (servicesByPlugin) {
+            SimpleServiceHandle.Watcher<T> removed = handle.removeWatcher(watcher);
+            if (removed == null) {
+                return false;
+            }
+
+            Object plugin = removed.getPlugin();
+            if (plugin != null && !handle.hasWatchers(plugin)) {
+                Set<SimpleServiceHandle<?>> watched = watchedByPlugin.get(plugin);
+                if (watched != null && watched.remove(handle) && watched.isEmpty()) {
+                    watchedByPlugin.remove(plugin);
+                }
+            }
+        }
+        return true;
     }
 
     @Nonnull
     @Override
     public Collection<Class<?>> getRegisteredServices() {
-        rwLock.readLock().lock();
-        try {
-            return Collections.unmodifiableCollection(serviceProviders.keySet());
-        } finally {
-            rwLock.readLock().unlock();
+        List<Class<?>> services = new ArrayList<>();
+        for (SimpleServiceHandle<?> handle : serviceProviders.values()) {
+            if (handle.getProvider() != null) {
+                services.add(handle.getService());
+            }
         }
+        return Collections.unmodifiableCollection(services);
+    }
+
+    /**
+     * Gets the lazy providers which have not been created yet, for example to find services registered at startup
+     * which were never used.
+     *
+     * @return an unmodifiable {@link List}
+     */
+    @Nonnull
+    public List<ServiceProvider<?>> getUnmaterializedProviders() {
+        List<ServiceProvider<?>> unmaterialized = new ArrayList<>();
+        for (SimpleServiceHandle<?> handle : serviceProviders.values()) {
+            for (ServiceProvider<?> provider : handle.getProviders()) {
+                if (provider instanceof LazyServiceProvider && !((LazyServiceProvider<?>) provider).isMaterialized()) {
+                    unmaterialized.add(provider);
+                }
+            }
+        }
+        return Collections.unmodifiableList(unmaterialized);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> SimpleServiceHandle<T> getHandle0(Class<T> service) {
+        return (SimpleServiceHandle<T>) serviceProviders.computeIfAbsent(service, SimpleServiceHandle::new);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> SimpleServiceHandle<T> getExistingHandle(Class<T> service) {
+        return (SimpleServiceHandle<T>) serviceProviders.get(service);
     }
 }
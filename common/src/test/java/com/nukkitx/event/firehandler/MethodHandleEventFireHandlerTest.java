@@ -0,0 +1,101 @@
+package com.nukkitx.event.firehandler;
+
+import com.nukkitx.api.event.Event;
+import com.nukkitx.api.event.EventFireHandler;
+import com.nukkitx.event.SimpleEventManager;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.*;
+
+public class MethodHandleEventFireHandlerTest {
+    private static final String LISTENER_CLASS = "com/nukkitx/event/generated/HiddenListener";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void firesListenerFromOtherClassLoader() throws Exception {
+        Path jar = folder.newFile("listener.jar").toPath();
+        try (OutputStream os = Files.newOutputStream(jar);
+             JarOutputStream jos = new JarOutputStream(os)) {
+            jos.putNextEntry(new JarEntry(LISTENER_CLASS + ".class"));
+            jos.write(generateListener());
+            jos.closeEntry();
+        }
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{jar.toUri().toURL()},
+                MethodHandleEventFireHandlerTest.class.getClassLoader())) {
+            Class<?> listenerClass = loader.loadClass(LISTENER_CLASS.replace('/', '.'));
+            Constructor<?> constructor = listenerClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+
+            SimpleEventManager eventManager = SimpleEventManager.builder()
+                    .handlerFactory(MethodHandleEventFireHandler::new)
+                    .build();
+            eventManager.registerListeners(this, constructor.newInstance());
+
+            List<EventFireHandler.ListenerMethod> methods = eventManager.getEventListenerMethods(TestEvent.class);
+            assertEquals(1, methods.size());
+            assertTrue("Listener fell back to reflection",
+                    methods.get(0) instanceof MethodHandleEventFireHandler.ListenerMethod);
+
+            TestEvent event = new TestEvent();
+            eventManager.fire(event);
+            eventManager.fire(event);
+            assertEquals(2, event.calls);
+        }
+    }
+
+    /**
+     * Generates a package-private listener which calls {@link TestEvent#call()}.
+     */
+    private static byte[] generateListener() {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_SUPER, LISTENER_CLASS, null, "java/lang/Object", null);
+
+        MethodVisitor mv = cw.visitMethod(0, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        String event = Type.getInternalName(TestEvent.class);
+        mv = cw.visitMethod(0, "onTest", "(L" + event + ";)V", null, null);
+        mv.visitAnnotation("Lcom/nukkitx/api/event/Listener;", true).visitEnd();
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, event, "call", "()V", false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    public static class TestEvent implements Event {
+        private int calls;
+
+        public void call() {
+            calls++;
+        }
+    }
+}
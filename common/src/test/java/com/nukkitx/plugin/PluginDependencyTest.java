@@ -0,0 +1,135 @@
+package com.nukkitx.plugin;
+
+import com.nukkitx.api.plugin.PluginContainer;
+import com.nukkitx.api.plugin.PluginDependency;
+import com.nukkitx.event.SimpleEventManager;
+import com.nukkitx.plugin.loader.JavaPluginLoader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.junit.Assert.*;
+
+public class PluginDependencyTest {
+    private static final String API_CLASS = "b/Api";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void loadsClassesOfDependency() throws Exception {
+        Path directory = folder.newFolder().toPath();
+        writeJar(directory.resolve("b.jar"), "b/PluginB", generatePlugin("b/PluginB", "b", false),
+                API_CLASS, generateApi());
+        writeJar(directory.resolve("a.jar"), "a/PluginA", generatePlugin("a/PluginA", "a", true));
+
+        SimpleEventManager eventManager = new SimpleEventManager();
+        SimplePluginManager pluginManager = new SimplePluginManager(eventManager, null, Runnable::run);
+        pluginManager.registerLoader(JavaPluginLoader.class, JavaPluginLoader.builder().build());
+        pluginManager.loadPlugins(directory);
+
+        PluginContainer a = pluginManager.getPlugin("a").orElseThrow(() -> new AssertionError("a was not loaded"));
+        PluginContainer b = pluginManager.getPlugin("b").orElseThrow(() -> new AssertionError("b was not loaded"));
+
+        List<PluginDependency> dependencies = new ArrayList<>(a.getDependencies());
+        assertEquals(1, dependencies.size());
+        assertEquals("b", dependencies.get(0).getId());
+        assertEquals("", dependencies.get(0).getVersion());
+        assertFalse(dependencies.get(0).isOptional());
+
+        ClassLoader loaderA = a.getPlugin().getClass().getClassLoader();
+        ClassLoader loaderB = b.getPlugin().getClass().getClassLoader();
+        assertNotSame(loaderA, loaderB);
+        assertSame(loaderB.loadClass("b.Api"), loaderA.loadClass("b.Api"));
+    }
+
+    private static void writeJar(Path path, String name, byte[] bytes) throws Exception {
+        writeJar(path, name, bytes, null, null);
+    }
+
+    private static void writeJar(Path path, String name, byte[] bytes, String otherName, byte[] otherBytes)
+            throws Exception {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+
+        try (OutputStream os = Files.newOutputStream(path);
+             JarOutputStream jos = new JarOutputStream(os, manifest)) {
+            jos.putNextEntry(new JarEntry(name + ".class"));
+            jos.write(bytes);
+            jos.closeEntry();
+            if (otherName != null) {
+                jos.putNextEntry(new JarEntry(otherName + ".class"));
+                jos.write(otherBytes);
+                jos.closeEntry();
+            }
+        }
+    }
+
+    /**
+     * Generates a plugin. A plugin which depends on "b" declares it with {@link com.nukkitx.api.plugin.Dependency}
+     * and creates a {@code b.Api} in its constructor, so it can only be created if b's classes are visible to it.
+     */
+    private static byte[] generatePlugin(String className, String id, boolean dependsOnB) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, className, null, "java/lang/Object", null);
+
+        AnnotationVisitor av = cw.visitAnnotation("Lcom/nukkitx/api/plugin/Plugin;", true);
+        av.visit("id", id);
+        av.visit("version", "1.0.0");
+        if (dependsOnB) {
+            AnnotationVisitor array = av.visitArray("dependencies");
+            AnnotationVisitor dependency = array.visitAnnotation(null, "Lcom/nukkitx/api/plugin/Dependency;");
+            dependency.visit("id", "b");
+            dependency.visitEnd();
+            array.visitEnd();
+        }
+        av.visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        if (dependsOnB) {
+            mv.visitTypeInsn(Opcodes.NEW, API_CLASS);
+            mv.visitInsn(Opcodes.DUP);
+            mv.visitMethodInsn(Opcodes.INVOKESPECIAL, API_CLASS, "<init>", "()V", false);
+            mv.visitInsn(Opcodes.POP);
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static byte[] generateApi() {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, API_CLASS, null, "java/lang/Object", null);
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+}
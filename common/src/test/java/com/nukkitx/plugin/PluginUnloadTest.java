@@ -0,0 +1,138 @@
+package com.nukkitx.plugin;
+
+import com.nukkitx.api.event.Event;
+import com.nukkitx.api.plugin.PluginContainer;
+import com.nukkitx.api.service.ServicePriority;
+import com.nukkitx.api.service.ServiceProvider;
+import com.nukkitx.event.SimpleEventManager;
+import com.nukkitx.plugin.loader.JavaPluginLoader;
+import com.nukkitx.service.SimpleServiceManager;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.junit.Assert.*;
+
+public class PluginUnloadTest {
+    private static final String PLUGIN_ID = "unloadable";
+    private static final String PLUGIN_CLASS = "com/nukkitx/plugin/generated/UnloadablePlugin";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void unloadedPluginCanBeCollected() throws Exception {
+        Path directory = folder.newFolder().toPath();
+        writePlugin(directory.resolve(PLUGIN_ID + ".jar"));
+
+        SimpleEventManager eventManager = new SimpleEventManager();
+        SimpleServiceManager serviceManager = new SimpleServiceManager(eventManager);
+        SimplePluginManager pluginManager = new SimplePluginManager(eventManager, serviceManager, Runnable::run);
+        pluginManager.registerLoader(JavaPluginLoader.class, JavaPluginLoader.builder().build());
+        pluginManager.loadPlugins(directory);
+
+        WeakReference<ClassLoader> loader = usePlugin(pluginManager, serviceManager, eventManager);
+
+        assertTrue(pluginManager.unloadPlugin(PLUGIN_ID));
+        assertFalse(pluginManager.isLoaded(PLUGIN_ID));
+        assertFalse(eventManager.hasListeners(TestEvent.class));
+        assertFalse(serviceManager.getProvider(Runnable.class).isPresent());
+
+        for (int i = 0; i < 50 && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull("Class loader of the unloaded plugin is still reachable", loader.get());
+    }
+
+    /**
+     * Registers the plugin as a listener, a service provider and a service watcher. Kept separate so no local
+     * variable holds on to the plugin.
+     */
+    @SuppressWarnings("unchecked")
+    private static WeakReference<ClassLoader> usePlugin(SimplePluginManager pluginManager,
+                                                        SimpleServiceManager serviceManager,
+                                                        SimpleEventManager eventManager) {
+        PluginContainer container = pluginManager.getPlugin(PLUGIN_ID).orElseThrow(AssertionError::new);
+        Object plugin = container.getPlugin();
+        assertNotSame(PluginUnloadTest.class.getClassLoader(), plugin.getClass().getClassLoader());
+
+        serviceManager.register(Runnable.class, (Runnable) plugin, plugin, ServicePriority.NORMAL);
+        serviceManager.watch(plugin, Runnable.class, (Consumer<ServiceProvider<Runnable>>) plugin);
+
+        assertTrue(eventManager.hasListeners(TestEvent.class));
+        eventManager.fire(new TestEvent());
+        return new WeakReference<>(plugin.getClass().getClassLoader());
+    }
+
+    private static void writePlugin(Path path) throws Exception {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+
+        try (OutputStream os = Files.newOutputStream(path);
+             JarOutputStream jos = new JarOutputStream(os, manifest)) {
+            jos.putNextEntry(new JarEntry(PLUGIN_CLASS + ".class"));
+            jos.write(generatePlugin());
+            jos.closeEntry();
+        }
+    }
+
+    /**
+     * Generates a plugin which is a listener of {@link TestEvent}, a {@link Runnable} and a {@link Consumer}. It has
+     * to be generated as classes compiled with the tests would be loaded by the parent class loader instead.
+     */
+    private static byte[] generatePlugin() {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC | Opcodes.ACC_SUPER, PLUGIN_CLASS, null, "java/lang/Object",
+                new String[]{"java/lang/Runnable", "java/util/function/Consumer"});
+
+        AnnotationVisitor av = cw.visitAnnotation("Lcom/nukkitx/api/plugin/Plugin;", true);
+        av.visit("id", PLUGIN_ID);
+        av.visit("version", "1.0.0");
+        av.visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        emptyMethod(cw, "run", "()V", false);
+        emptyMethod(cw, "accept", "(Ljava/lang/Object;)V", false);
+        emptyMethod(cw, "onTest", "(" + Type.getDescriptor(TestEvent.class) + ")V", true);
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private static void emptyMethod(ClassWriter cw, String name, String descriptor, boolean listener) {
+        MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, name, descriptor, null, null);
+        if (listener) {
+            mv.visitAnnotation("Lcom/nukkitx/api/event/Listener;", true).visitEnd();
+        }
+        mv.visitCode();
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    public static class TestEvent implements Event {
+    }
+}
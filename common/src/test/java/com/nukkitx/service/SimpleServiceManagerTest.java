@@ -0,0 +1,61 @@
+package com.nukkitx.service;
+
+import com.nukkitx.api.service.ServicePriority;
+import com.nukkitx.api.service.ServiceProvider;
+import com.nukkitx.event.SimpleEventManager;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.*;
+
+public class SimpleServiceManagerTest {
+
+    @Test
+    public void watchesWithoutPlugin() {
+        SimpleServiceManager serviceManager = new SimpleServiceManager(new SimpleEventManager());
+        List<ServiceProvider<Runnable>> changes = new ArrayList<>();
+        Consumer<ServiceProvider<Runnable>> watcher = changes::add;
+        serviceManager.watch(Runnable.class, watcher);
+
+        Object plugin = new Object();
+        Runnable provider = () -> {
+        };
+        serviceManager.register(Runnable.class, provider, plugin, ServicePriority.NORMAL);
+        assertEquals(1, changes.size());
+        assertSame(provider, changes.get(0).getProvider());
+
+        assertTrue(serviceManager.unwatch(Runnable.class, watcher));
+        assertFalse(serviceManager.unwatch(Runnable.class, watcher));
+        serviceManager.cancel(plugin);
+        assertEquals(1, changes.size());
+    }
+
+    @Test
+    public void unwatchReleasesPlugin() throws Exception {
+        SimpleServiceManager serviceManager = new SimpleServiceManager(new SimpleEventManager());
+        Consumer<ServiceProvider<Runnable>> watcher = provider -> {
+        };
+        WeakReference<Object> plugin = watchAndUnwatch(serviceManager, watcher);
+
+        for (int i = 0; i < 50 && plugin.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull("Plugin is still reachable after removing its only watcher", plugin.get());
+    }
+
+    /**
+     * Kept separate so no local variable holds on to the plugin.
+     */
+    private static WeakReference<Object> watchAndUnwatch(SimpleServiceManager serviceManager,
+                                                         Consumer<ServiceProvider<Runnable>> watcher) {
+        Object plugin = new Object();
+        serviceManager.watch(plugin, Runnable.class, watcher);
+        assertTrue(serviceManager.unwatch(Runnable.class, watcher));
+        return new WeakReference<>(plugin);
+    }
+}